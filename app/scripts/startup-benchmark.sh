@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Compares time-to-first-request of the default JVM build and the fast-start build.
+# Prerequisites: ./mvnw -pl app -Pfast-start package -DskipTests and the database from
+# application.properties. The phase breakdown is printed by StartupReport.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT=${PORT:-18081}
+RUNS=${RUNS:-3}
+JAR=target/BaseSetup-0.0.1-SNAPSHOT.jar
+FAST_DIR=target/fast-start
+
+run() {
+    local label=$1; shift
+    for i in $(seq 1 "$RUNS"); do
+        local log="target/startup-${label}-${i}.log"
+        local start end
+        start=$(date +%s%N)
+        "$@" --server.port="$PORT" --spring.app.startupReport=true > "$log" 2>&1 &
+        local pid=$!
+        until curl -sf -o /dev/null "http://localhost:${PORT}/actuator/health"; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "${label}: application exited, see ${log}" >&2
+                exit 1
+            fi
+            sleep 0.02
+        done
+        end=$(date +%s%N)
+        local rss
+        rss=$(awk '/VmRSS/ {print $2 " " $3}' "/proc/${pid}/status" 2>/dev/null || echo "n/a")
+        echo "${label} run ${i}: first request after $(( (end - start) / 1000000 )) ms, RSS ${rss}"
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+    done
+    echo "--- ${label}: phase breakdown of the last run"
+    grep "Startup report" -A 11 "target/startup-${label}-${RUNS}.log" | sed 's/^.*Startup report/Startup report/' || true
+}
+
+run default java -jar "$JAR"
+run fast-start java -XX:AOTCache="${FAST_DIR}/app.aot" -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=fast-start -jar "${FAST_DIR}/BaseSetup-0.0.1-SNAPSHOT.jar"
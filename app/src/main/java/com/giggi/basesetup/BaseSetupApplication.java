@@ -0,0 +1,17 @@
+package com.giggi.basesetup;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+
+@SpringBootApplication
+public class BaseSetupApplication {
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(BaseSetupApplication.class);
+        // Records startup steps for StartupReport and /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
+    }
+
+}
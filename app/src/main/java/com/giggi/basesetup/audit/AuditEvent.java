@@ -0,0 +1,16 @@
+package com.giggi.basesetup.audit;
+
+import com.giggi.basesetup.entity.AuditEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * An audit entry waiting in the {@link AuditLogger} queue.
+ */
+public record AuditEvent(AuditEventType type,
+                         boolean success,
+                         String principal,
+                         String remoteAddress,
+                         String detail,
+                         LocalDateTime occurredAt) {
+}
@@ -0,0 +1,194 @@
+package com.giggi.basesetup.audit;
+
+import com.giggi.basesetup.entity.AuditEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit trail. Request threads only enqueue; a single writer thread
+ * inserts the queued events with JDBC batches when {@code batchSize} events are
+ * waiting or {@code flushIntervalMs} has elapsed, whichever comes first.
+ * <p>
+ * The queue is bounded: when the writer falls behind, new events are dropped and
+ * counted (audit.events.dropped) instead of slowing down logins. Pending events
+ * are flushed on shutdown.
+ */
+@Component
+@Slf4j
+public class AuditLogger implements SmartLifecycle {
+
+    private static final String INSERT_SQL = "INSERT INTO audit_log "
+            + "(event_type, success, principal, remote_address, detail, occurred_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final Queue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public AuditLogger(JdbcTemplate jdbcTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${spring.app.audit.capacity:10000}") int capacity,
+                       @Value("${spring.app.audit.batchSize:200}") int batchSize,
+                       @Value("${spring.app.audit.flushIntervalMs:500}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        Gauge.builder("audit.queue.size", queued, AtomicInteger::get).register(meterRegistry);
+        this.written = meterRegistry.counter("audit.events.written");
+        this.dropped = meterRegistry.counter("audit.events.dropped");
+        this.failed = meterRegistry.counter("audit.events.failed");
+        this.flushTimer = meterRegistry.timer("audit.flush");
+    }
+
+    /**
+     * Queue an event with the client address of the current request, if any.
+     *
+     * @return false when the queue is full and the event was dropped
+     */
+    public boolean log(AuditEventType type, boolean success, String principal, String detail) {
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        queue.offer(new AuditEvent(type, success, truncate(principal, 100), remoteAddress(),
+                truncate(detail, 255), LocalDateTime.now()));
+
+        // Wake the writer early only when a full batch is ready
+        Thread current = writer;
+        if (current != null && queued.get() >= batchSize) {
+            LockSupport.unpark(current);
+        }
+        return true;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::writeLoop, "audit-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before and stop after the web server, so requests still in flight
+     * during a graceful shutdown are written too.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        long lastFlush = System.nanoTime();
+        while (running) {
+            long sinceFlush = System.nanoTime() - lastFlush;
+            if (queued.get() >= batchSize || sinceFlush >= flushIntervalNanos) {
+                flush(batchSize);
+                lastFlush = System.nanoTime();
+            } else {
+                LockSupport.parkNanos(this, flushIntervalNanos - sinceFlush);
+            }
+        }
+        // Shutdown: drain whatever is left
+        while (flush(batchSize) > 0) {
+            // keep going
+        }
+    }
+
+    private int flush(int max) {
+        List<AuditEvent> batch = new ArrayList<>(Math.min(max, queued.get()));
+        AuditEvent event;
+        while (batch.size() < max && (event = queue.poll()) != null) {
+            batch.add(event);
+        }
+        queued.addAndGet(-batch.size());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, e) -> {
+                statement.setString(1, e.type().name());
+                statement.setBoolean(2, e.success());
+                statement.setString(3, e.principal());
+                statement.setString(4, e.remoteAddress());
+                statement.setString(5, e.detail());
+                statement.setTimestamp(6, Timestamp.valueOf(e.occurredAt()));
+            }));
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.error("Failed to write {} audit event(s): {}", batch.size(), e.getMessage());
+        }
+        return batch.size();
+    }
+
+    private static String remoteAddress() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return request.getRemoteAddr();
+        }
+        return null;
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+}
@@ -0,0 +1,33 @@
+package com.giggi.basesetup.config;
+
+import com.giggi.basesetup.security.jwt.AuthEntryPointJwt;
+import com.giggi.basesetup.security.jwt.AuthTokenFilter;
+import com.giggi.basesetup.security.jwt.JwtUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.web.SecurityFilterChain;
+
+import javax.sql.DataSource;
+
+/**
+ * The fast-start profile makes every bean lazy; the ones on the path of the first
+ * authenticated request stay eager so that request does not pay for them.
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter requestPathEagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                SecurityFilterChain.class,
+                AuthTokenFilter.class,
+                AuthEntryPointJwt.class,
+                JwtUtils.class,
+                DataSource.class,
+                EntityManagerFactory.class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.giggi.basesetup.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.giggi.basesetup.dto.response.utente.RuoloFindDTO;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Jackson tuning for the hot response DTOs. Module beans are registered by
+ * Spring Boot on the shared ObjectMapper.
+ * <p>
+ * Besides JSON, every endpoint speaks CBOR ({@code application/cbor}) and Smile
+ * ({@code application/x-jackson-smile}) when the client asks for them in
+ * {@code Accept} or sends them as {@code Content-Type}; JSON stays the default.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Replaces reflective getter calls with generated lambdas for every bean serializer.
+     * Native images cannot define classes at runtime, so it is skipped there.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        if (NativeDetector.inNativeImage()) {
+            return new SimpleModule("BlackbirdDisabled");
+        }
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Built from Boot's builder, so the binary mappers get the same modules and
+     * settings as the JSON one. Replaces the default CBOR converter in place, after JSON.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Role name/description pairs repeat for every user: write them from cached fragments.
+     */
+    @Bean
+    public Module responseFragmentModule() {
+        SimpleModule module = new SimpleModule("ResponseFragments");
+        module.addSerializer(RuoloFindDTO.class, new RuoloFindDTOSerializer());
+        return module;
+    }
+}
@@ -0,0 +1,56 @@
+package com.giggi.basesetup.config;
+
+import com.giggi.basesetup.dto.response.MessageResponse;
+import com.giggi.basesetup.dto.response.jwt.JwtResponse;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the GraalVM native image (./mvnw -pl app -Pnative native:compile).
+ * Controllers returning {@code ResponseEntity<?>} hide their body types from AOT,
+ * so those DTOs are registered explicitly.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.JjwtRuntimeHints.class)
+@RegisterReflectionForBinding({JwtResponse.class, MessageResponse.class})
+public class NativeHintsConfig {
+
+    /**
+     * jjwt-api instantiates its implementation by class name and finds the
+     * Jackson (de)serializer through the ServiceLoader.
+     */
+    static class JjwtRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final String[] REFLECTIVE_TYPES = {
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+                "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyOperations",
+                "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardCurves",
+                "io.jsonwebtoken.impl.security.KeysBridge",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : REFLECTIVE_TYPES) {
+                hints.reflection().registerTypeIfPresent(classLoader, type,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+        }
+    }
+}
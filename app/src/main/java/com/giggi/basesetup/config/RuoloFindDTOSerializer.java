@@ -0,0 +1,72 @@
+package com.giggi.basesetup.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.giggi.basesetup.dto.response.utente.RuoloFindDTO;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serializes roles from precomputed JSON fragments. There are only a handful of
+ * distinct roles, so each one is escaped once and then copied as raw text.
+ */
+public class RuoloFindDTOSerializer extends StdSerializer<RuoloFindDTO> {
+
+    private static final int MAX_CACHED_FRAGMENTS = 256;
+
+    private final ConcurrentMap<RoleKey, String> fragments = new ConcurrentHashMap<>();
+
+    private record RoleKey(String name, String description) {
+    }
+
+    public RuoloFindDTOSerializer() {
+        super(RuoloFindDTO.class);
+    }
+
+    @Override
+    public void serialize(RuoloFindDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        // Raw values only make sense for textual JSON, binary formats take the regular path
+        if (gen instanceof JsonGeneratorImpl) {
+            String fragment = fragment(value);
+            if (fragment != null) {
+                gen.writeRawValue(fragment);
+                return;
+            }
+        }
+        gen.writeStartObject(value);
+        gen.writeStringField("name", value.getName());
+        gen.writeStringField("description", value.getDescription());
+        gen.writeEndObject();
+    }
+
+    private String fragment(RuoloFindDTO value) {
+        RoleKey key = new RoleKey(value.getName(), value.getDescription());
+        String fragment = fragments.get(key);
+        if (fragment == null && fragments.size() < MAX_CACHED_FRAGMENTS) {
+            fragment = fragments.computeIfAbsent(key, RuoloFindDTOSerializer::toJson);
+        }
+        return fragment;
+    }
+
+    private static String toJson(RoleKey key) {
+        StringBuilder json = new StringBuilder(64);
+        json.append("{\"name\":");
+        appendString(json, key.name());
+        json.append(",\"description\":");
+        appendString(json, key.description());
+        return json.append('}').toString();
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"').append(JsonStringEncoder.getInstance().quoteAsString(value)).append('"');
+    }
+}
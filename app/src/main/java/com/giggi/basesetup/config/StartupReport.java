@@ -0,0 +1,91 @@
+package com.giggi.basesetup.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs where startup time goes: JVM bootstrap before Spring, the slowest startup
+ * phases and bean instantiations, and the JVM uptime when the first request completes.
+ * Enabled with {@code spring.app.startupReport=true} (on in the fast-start profile).
+ */
+@Component
+@ConditionalOnProperty(name = "spring.app.startupReport", havingValue = "true")
+@Slf4j
+public class StartupReport {
+
+    private static final int TOP_ENTRIES = 10;
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            log.info("Startup report: ready after {} ms of JVM uptime (no buffered timeline)", uptime);
+            return;
+        }
+
+        StartupTimeline timeline = startup.drainBufferedTimeline();
+        Instant jvmStart = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+        log.info("Startup report: ready after {} ms of JVM uptime, {} ms before Spring started",
+                uptime, Duration.between(jvmStart, timeline.getStartTime()).toMillis());
+
+        Map<String, Duration> phases = new HashMap<>();
+        Map<String, Duration> beans = new HashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : timeline.getEvents()) {
+            StartupStep step = timelineEvent.getStartupStep();
+            if (BEAN_INSTANTIATE.equals(step.getName())) {
+                beans.merge(beanName(step), timelineEvent.getDuration(), Duration::plus);
+            } else {
+                phases.merge(step.getName(), timelineEvent.getDuration(), Duration::plus);
+            }
+        }
+
+        log.info("Startup report: slowest phases (nested phases include their children)");
+        top(phases).forEach(entry -> log.info("  {} ms  {}", entry.getValue().toMillis(), entry.getKey()));
+        log.info("Startup report: slowest bean instantiations (including dependencies)");
+        top(beans).forEach(entry -> log.info("  {} ms  {}", entry.getValue().toMillis(), entry.getKey()));
+    }
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (!firstRequestSeen.get() && firstRequestSeen.compareAndSet(false, true)) {
+            log.info("Startup report: first request {} completed after {} ms of JVM uptime ({} ms in the request)",
+                    event.getRequestUrl(), ManagementFactory.getRuntimeMXBean().getUptime(),
+                    event.getProcessingTimeMillis());
+        }
+    }
+
+    private static List<Map.Entry<String, Duration>> top(Map<String, Duration> durations) {
+        return durations.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue(Comparator.reverseOrder()))
+                .limit(TOP_ENTRIES)
+                .toList();
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "(unnamed)";
+    }
+}
@@ -0,0 +1,49 @@
+package com.giggi.basesetup.controller;
+
+import com.giggi.basesetup.dto.response.audit.AuditLogPageDTO;
+import com.giggi.basesetup.entity.AuditEventType;
+import com.giggi.basesetup.entity.AuditLog;
+import com.giggi.basesetup.mapper.AuditLogMapper;
+import com.giggi.basesetup.service.AuditLogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/audit")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AuditController {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final AuditLogService auditLogService;
+    private final AuditLogMapper auditLogMapper;
+
+    /**
+     * Authentication audit trail, newest first, optionally filtered by event type and principal.
+     */
+    @GetMapping
+    public ResponseEntity<AuditLogPageDTO> search(@RequestParam(required = false) AuditEventType type,
+                                                  @RequestParam(required = false) String principal,
+                                                  @RequestParam(defaultValue = "0") int page,
+                                                  @RequestParam(defaultValue = "50") int size) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        Page<AuditLog> result = auditLogService.search(type, principal,
+                PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Direction.DESC, "id")));
+        return ResponseEntity.ok(new AuditLogPageDTO(
+                result.getContent().stream().map(auditLogMapper::convert).toList(),
+                result.getNumber(),
+                result.getSize(),
+                result.getTotalElements(),
+                result.getTotalPages()));
+    }
+}
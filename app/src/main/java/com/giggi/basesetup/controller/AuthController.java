@@ -1,9 +1,13 @@
 package com.giggi.basesetup.controller;
 
+import com.giggi.basesetup.audit.AuditLogger;
 import com.giggi.basesetup.dto.request.auth.LoginRequest;
 import com.giggi.basesetup.dto.request.auth.RegisterRequest;
 import com.giggi.basesetup.dto.response.MessageResponse;
+import com.giggi.basesetup.dto.response.auth.UserProfileResponse;
 import com.giggi.basesetup.dto.response.jwt.JwtResponse;
+import com.giggi.basesetup.entity.AuditEventType;
+import com.giggi.basesetup.security.jwt.JwtPrincipal;
 import com.giggi.basesetup.service.impl.AuthServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,9 +18,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.TransactionException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
 
 /**
  * REST controller for authentication operations.
@@ -29,6 +41,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthServiceImpl authService;
+    private final AuditLogger auditLogger;
 
     /**
      * Authenticate user and return JWT token.
@@ -49,9 +62,12 @@ public class AuthController {
         try {
             JwtResponse jwtResponse = authService.authenticateUser(loginRequest);
             log.info("Login successful for user: {}", loginRequest.getUsernameOrEmail());
+            auditLogger.log(AuditEventType.LOGIN, true, jwtResponse.getUsername(), null);
             return ResponseEntity.ok(jwtResponse);
         } catch (Exception e) {
+            rethrowServerFailure(e);
             log.error("Login failed for user: {} - Error: {}", loginRequest.getUsernameOrEmail(), e.getMessage());
+            auditLogger.log(AuditEventType.LOGIN, false, loginRequest.getUsernameOrEmail(), e.getClass().getSimpleName());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(MessageResponse.error("Invalid username/email or password"));
         }
@@ -74,6 +90,8 @@ public class AuthController {
 
         try {
             MessageResponse response = authService.registerUser(signUpRequest);
+            auditLogger.log(AuditEventType.SIGNUP, response.isSuccess(), signUpRequest.getUsername(),
+                    response.isSuccess() ? null : response.getMessage());
 
             if (response.isSuccess()) {
                 log.info("Registration successful for user: {}", signUpRequest.getUsername());
@@ -83,7 +101,9 @@ public class AuthController {
                 return ResponseEntity.badRequest().body(response);
             }
         } catch (Exception e) {
+            rethrowServerFailure(e);
             log.error("Registration failed for user: {} - Error: {}", signUpRequest.getUsername(), e.getMessage());
+            auditLogger.log(AuditEventType.SIGNUP, false, signUpRequest.getUsername(), e.getClass().getSimpleName());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(MessageResponse.error("Error registering user: " + e.getMessage()));
         }
@@ -106,6 +126,7 @@ public class AuthController {
         log.info("Validazione del token: {}", token);
         try {
             boolean isValid = authService.validateToken(token);
+            auditLogger.log(AuditEventType.TOKEN_VALIDATION, isValid, null, null);
             if (isValid) {
                 log.info("Token valido");
                 return ResponseEntity.ok(MessageResponse.success("Token valido"));
@@ -116,8 +137,59 @@ public class AuthController {
             }
         } catch (Exception e) {
             log.error("Errore durante la validazione del token - Errore: {}", e.getMessage());
+            auditLogger.log(AuditEventType.TOKEN_VALIDATION, false, null, e.getClass().getSimpleName());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(MessageResponse.error("Token non valido"));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Profile of the authenticated user. Compact tokens carry only id and roles, so
+     * clients read the rest here; the ETag follows the row version, so a revalidation
+     * answers 304 without loading the user.
+     */
+    @GetMapping("/me")
+    @Operation(summary = "Current user profile", description = "Return the profile of the authenticated user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Profile",
+                    content = @Content(schema = @Schema(implementation = UserProfileResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Profile unchanged since the given ETag"),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid token",
+                    content = @Content(schema = @Schema(implementation = MessageResponse.class)))
+    })
+    public ResponseEntity<?> me(Authentication authentication, WebRequest request) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof JwtPrincipal principal)
+                || principal.getId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageResponse.error("Token non valido"));
+        }
+
+        Optional<Long> version = authService.findProfileVersion(principal.getId());
+        if (version.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MessageResponse.error("User not found"));
+        }
+
+        String etag = "W/\"me-" + principal.getId() + "-" + version.get() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        return authService.getProfile(principal.getId())
+                .<ResponseEntity<?>>map(profile -> ResponseEntity.ok()
+                        .eTag("W/\"me-" + profile.getId() + "-" + profile.getVersion() + "\"")
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .body(profile))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(MessageResponse.error("User not found")));
+    }
+
+    /**
+     * Database and transaction failures are not the client's fault: they are rethrown
+     * instead of answering 401/400, so the concurrency limit sees pool and statement
+     * timeouts. The authentication manager wraps those of the user lookup.
+     */
+    private static void rethrowServerFailure(Exception e) {
+        Throwable cause = e instanceof InternalAuthenticationServiceException ? e.getCause() : e;
+        if (cause instanceof DataAccessException || cause instanceof TransactionException) {
+            throw (RuntimeException) e;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.giggi.basesetup.controller;
+
+import com.giggi.basesetup.storage.ContentStore;
+import com.giggi.basesetup.storage.ThumbnailService;
+import com.giggi.basesetup.storage.ThumbnailSize;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Avatar thumbnails addressed by the hash of the original: the content behind a
+ * URL never changes, so responses are cacheable forever.
+ */
+@RestController
+@RequestMapping("/api/avatars")
+@RequiredArgsConstructor
+public class AvatarThumbnailController {
+    private static final long GENERATION_WAIT_MS = 2000;
+
+    private final ContentStore contentStore;
+    private final ThumbnailService thumbnailService;
+
+    /**
+     * Serve a cached thumbnail; a missing one is generated on the worker pool while
+     * this request waits briefly for it.
+     */
+    @GetMapping("/{hash}/{size}")
+    public ResponseEntity<Resource> thumbnail(@PathVariable String hash,
+                                              @PathVariable String size,
+                                              WebRequest request) throws InterruptedException {
+        ThumbnailSize thumbnailSize;
+        try {
+            thumbnailSize = ThumbnailSize.valueOf(size.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = "\"" + hash + "-" + thumbnailSize.key() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        Optional<Path> thumbnail = thumbnailService.find(hash, thumbnailSize);
+        if (thumbnail.isEmpty()) {
+            if (contentStore.find(hash).isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            try {
+                thumbnailService.generate(hash).get(GENERATION_WAIT_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return retryLater();
+            } catch (ExecutionException e) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+            }
+            thumbnail = thumbnailService.find(hash, thumbnailSize);
+            if (thumbnail.isEmpty()) {
+                return retryLater();
+            }
+        }
+
+        Path file = thumbnail.get();
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+                .contentType(MediaTypeFactory.getMediaType(file.getFileName().toString()).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .body(new FileSystemResource(file));
+    }
+
+    private static ResponseEntity<Resource> retryLater() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
+}
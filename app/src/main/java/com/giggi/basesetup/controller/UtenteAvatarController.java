@@ -0,0 +1,221 @@
+package com.giggi.basesetup.controller;
+
+import com.giggi.basesetup.dto.response.MessageResponse;
+import com.giggi.basesetup.dto.response.utente.UtenteAvatarDTO;
+import com.giggi.basesetup.entity.RoleName;
+import com.giggi.basesetup.repository.projection.UtenteAvatar;
+import com.giggi.basesetup.security.RoleAuthorities;
+import com.giggi.basesetup.service.UtenteService;
+import com.giggi.basesetup.storage.ContentStore;
+import com.giggi.basesetup.storage.ContentTooLargeException;
+import com.giggi.basesetup.storage.StoredContent;
+import com.giggi.basesetup.storage.ThumbnailService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.*;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * User avatars, kept in the content-addressed {@link ContentStore}.
+ * <p>
+ * Uploads stream straight to disk (raw body with {@code PUT}, or a multipart
+ * {@code file} part with {@code POST}). Downloads use Tomcat sendfile when available,
+ * {@link FileChannel#transferTo} otherwise, and Spring's resource regions for
+ * {@code Range} requests. The content hash is the ETag.
+ */
+@RestController
+@RequestMapping("/api/utenti/{id}/avatar")
+@Slf4j
+public class UtenteAvatarController {
+
+    // Tomcat request attributes (see org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final UtenteService utenteService;
+    private final ContentStore contentStore;
+    private final ThumbnailService thumbnailService;
+    private final long maxBytes;
+    private final List<MediaType> allowedTypes;
+
+    public UtenteAvatarController(UtenteService utenteService,
+                                  ContentStore contentStore,
+                                  ThumbnailService thumbnailService,
+                                  @Value("${spring.app.storage.avatarMaxBytes:10485760}") long maxBytes,
+                                  @Value("${spring.app.storage.avatarContentTypes:image/png,image/jpeg,image/gif}") List<String> allowedTypes) {
+        this.utenteService = utenteService;
+        this.contentStore = contentStore;
+        this.thumbnailService = thumbnailService;
+        this.maxBytes = maxBytes;
+        this.allowedTypes = allowedTypes.stream().map(MediaType::parseMediaType).toList();
+    }
+
+    /**
+     * Upload the raw request body, e.g. {@code curl -T avatar.png -H "Content-Type: image/png"}.
+     */
+    @PutMapping
+    public ResponseEntity<?> upload(@PathVariable Long id,
+                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                    HttpServletRequest request,
+                                    Authentication authentication) throws IOException {
+        return store(id, contentType, request.getContentLengthLong(), request.getInputStream(), authentication);
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadMultipart(@PathVariable Long id,
+                                             @RequestParam("file") MultipartFile file,
+                                             Authentication authentication) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            return store(id, file.getContentType(), file.getSize(), content, authentication);
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<Resource> download(@PathVariable Long id,
+                                             WebRequest webRequest,
+                                             HttpServletRequest request,
+                                             HttpServletResponse response) throws IOException {
+        Optional<UtenteAvatar> avatar = utenteService.findAvatar(id);
+        if (avatar.isEmpty() || avatar.get().hash() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<Path> file = contentStore.find(avatar.get().hash());
+        if (file.isEmpty()) {
+            log.warn("Avatar blob {} of user {} is missing", avatar.get().hash(), id);
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = "\"" + avatar.get().hash() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        MediaType mediaType = MediaType.parseMediaType(avatar.get().contentType());
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofHours(1)).cachePrivate();
+
+        if (HttpMethod.GET.matches(request.getMethod()) && request.getHeader(HttpHeaders.RANGE) == null) {
+            long size = avatar.get().size();
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(mediaType.toString());
+            response.setContentLengthLong(size);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            writeFile(file.get(), size, request, response);
+            return null;
+        }
+
+        // HEAD and Range requests: Spring answers 206 with the requested regions
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(mediaType)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(new FileSystemResource(file.get()));
+    }
+
+    private ResponseEntity<?> store(Long id, String contentType, long declaredLength, InputStream content,
+                                    Authentication authentication) throws IOException {
+        Optional<UtenteAvatar> avatar = utenteService.findAvatar(id);
+        if (avatar.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!isOwnerOrAdmin(avatar.get(), authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(MessageResponse.error("Not allowed to change this avatar"));
+        }
+
+        MediaType mediaType = allowedType(contentType);
+        if (mediaType == null) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body(MessageResponse.error("Unsupported avatar type: " + contentType));
+        }
+        if (declaredLength > maxBytes) {
+            return tooLarge();
+        }
+
+        StoredContent stored;
+        try {
+            stored = contentStore.store(content, maxBytes);
+        } catch (ContentTooLargeException e) {
+            return tooLarge();
+        }
+
+        if (!utenteService.updateAvatar(id, stored.hash(), mediaType.toString(), stored.size())) {
+            return ResponseEntity.notFound().build();
+        }
+        log.info("Stored avatar of user {}: {} ({} bytes)", id, stored.hash(), stored.size());
+        thumbnailService.generate(stored.hash());
+        return ResponseEntity.ok(new UtenteAvatarDTO(stored.hash(), mediaType.toString(), stored.size(),
+                "/api/utenti/" + id + "/avatar"));
+    }
+
+    /**
+     * Hand the file to Tomcat's sendfile when the connector supports it; otherwise copy
+     * with {@code transferTo}, which avoids staging the file in heap buffers.
+     */
+    private static void writeFile(Path file, long size, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    private MediaType allowedType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        try {
+            MediaType requested = MediaType.parseMediaType(contentType);
+            return allowedTypes.stream()
+                    .filter(allowed -> allowed.equalsTypeAndSubtype(requested))
+                    .findFirst()
+                    .orElse(null);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isOwnerOrAdmin(UtenteAvatar avatar, Authentication authentication) {
+        if (authentication == null) {
+            return false;
+        }
+        return avatar.username().equals(authentication.getName())
+                || authentication.getAuthorities().contains(RoleAuthorities.of(RoleName.ROLE_ADMIN));
+    }
+
+    private static ResponseEntity<MessageResponse> tooLarge() {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(MessageResponse.error("Avatar too large"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.giggi.basesetup.controller;
+
+import com.giggi.basesetup.dto.request.utente.UtenteBulkRequestDTO;
+import com.giggi.basesetup.dto.response.MessageResponse;
+import com.giggi.basesetup.dto.response.utente.UtenteBulkResultDTO;
+import com.giggi.basesetup.entity.RoleName;
+import com.giggi.basesetup.service.UtenteBulkService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Bulk admin operations, by explicit ids or by filter, e.g.
+ * {@code POST /api/utenti/bulk/disable {"emailDomain": "example.com", "createdBefore": "2024-01-01T00:00:00"}}.
+ * The result lists every committed chunk; a failure stops at the failing chunk with 500.
+ */
+@RestController
+@RequestMapping("/api/utenti/bulk")
+@PreAuthorize("hasRole('ADMIN')")
+public class UtenteBulkController {
+
+    private final UtenteBulkService utenteBulkService;
+    private final int maxUsers;
+
+    public UtenteBulkController(UtenteBulkService utenteBulkService,
+                                @Value("${spring.app.bulk.maxUsers:100000}") int maxUsers) {
+        this.utenteBulkService = utenteBulkService;
+        this.maxUsers = maxUsers;
+    }
+
+    @PostMapping("/disable")
+    public ResponseEntity<?> disable(@RequestBody UtenteBulkRequestDTO request) {
+        ResponseEntity<MessageResponse> invalid = validate(request);
+        return invalid != null ? invalid : respond(utenteBulkService.disable(request));
+    }
+
+    @PostMapping("/delete")
+    public ResponseEntity<?> delete(@RequestBody UtenteBulkRequestDTO request) {
+        ResponseEntity<MessageResponse> invalid = validate(request);
+        return invalid != null ? invalid : respond(utenteBulkService.delete(request));
+    }
+
+    @PostMapping("/roles/{role}")
+    public ResponseEntity<?> grantRole(@PathVariable RoleName role, @RequestBody UtenteBulkRequestDTO request) {
+        ResponseEntity<MessageResponse> invalid = validate(request);
+        if (invalid != null) {
+            return invalid;
+        }
+        try {
+            return respond(utenteBulkService.grantRole(request, role));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(MessageResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Exactly one of ids or filter; an empty filter would select every user.
+     */
+    private ResponseEntity<MessageResponse> validate(UtenteBulkRequestDTO request) {
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean hasFilter = !request.toFilter().isEmpty();
+        if (hasIds == hasFilter) {
+            return ResponseEntity.badRequest().body(MessageResponse.error("Send either ids or at least one filter"));
+        }
+        if (hasIds && request.getIds().size() > maxUsers) {
+            return ResponseEntity.badRequest().body(MessageResponse.error("At most " + maxUsers + " ids per request"));
+        }
+        return null;
+    }
+
+    private static ResponseEntity<UtenteBulkResultDTO> respond(UtenteBulkResultDTO result) {
+        return ResponseEntity.status(result.isCompleted() ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+    }
+}
@@ -0,0 +1,369 @@
+package com.giggi.basesetup.controller;
+
+import com.giggi.basesetup.dto.request.utente.UtenteBatchRequestDTO;
+import com.giggi.basesetup.dto.request.utente.UtenteUpdateRequestDTO;
+import com.giggi.basesetup.dto.response.MessageResponse;
+import com.giggi.basesetup.dto.response.utente.UtenteBatchDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteChangesDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteFindAllDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteFindDTO;
+import com.giggi.basesetup.dto.response.utente.UtentePageDTO;
+import com.giggi.basesetup.entity.RoleName;
+import com.giggi.basesetup.mapper.UtenteMapper;
+import com.giggi.basesetup.repository.UtentePatch;
+import com.giggi.basesetup.repository.projection.UtenteField;
+import com.giggi.basesetup.repository.projection.UtenteFieldsRow;
+import com.giggi.basesetup.repository.projection.UtentiFingerprint;
+import com.giggi.basesetup.search.SearchMode;
+import com.giggi.basesetup.security.RoleAuthorities;
+import com.giggi.basesetup.security.jwt.JwtPrincipal;
+import com.giggi.basesetup.stream.UtenteStreamService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.apache.coyote.Response;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.giggi.basesetup.entity.Utente;
+import com.giggi.basesetup.service.UtenteChangeService;
+import com.giggi.basesetup.service.UtentePatchResult;
+import com.giggi.basesetup.service.UtenteService;
+
+@RestController
+@RequestMapping("/api/utenti")
+@RequiredArgsConstructor
+public class UtenteController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_CHANGES_LIMIT = 1000;
+    // If-Match: * only needs the user to exist, so a concurrent write is retried on the new version
+    private static final int ANY_VERSION_ATTEMPTS = 3;
+
+    private final UtenteService utenteService;
+    private final UtenteChangeService utenteChangeService;
+    private final UtenteMapper utenteMapper;
+    private final UtenteStreamService utenteStreamService;
+
+    /**
+     * Full user list. Answers 304 from the table fingerprint before any entity is loaded.
+     * With {@code fields=} (e.g. {@code ?fields=username,roles}) only those columns are
+     * read and written; {@code id} is always included.
+     */
+    @GetMapping
+    public ResponseEntity<?> getAllUtentes(@RequestParam(required = false) String fields, WebRequest request) {
+        Set<UtenteField> selected;
+        try {
+            selected = UtenteField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(MessageResponse.error(e.getMessage()));
+        }
+
+        String etag = weakEtag("utenti-" + utenteService.fingerprint().asTag() + fieldsTag(fields, selected));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        List<UtenteFindDTO> utenti = fields == null
+                ? utenteService.findAll().stream().map(utenteMapper::conver).toList()
+                : sparse(utenteService.findFields(selected, Pageable.unpaged()), selected);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(new UtenteFindAllDTO(utenti));
+    }
+
+    /**
+     * Paged user list ordered by id, e.g. {@code GET /api/utenti?page=0&size=20}.
+     */
+    @GetMapping(params = "page")
+    public ResponseEntity<?> getUtentiPage(@RequestParam int page,
+                                           @RequestParam(defaultValue = "20") int size,
+                                           @RequestParam(required = false) String fields,
+                                           WebRequest request) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Set<UtenteField> selected;
+        try {
+            selected = UtenteField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(MessageResponse.error(e.getMessage()));
+        }
+
+        UtentiFingerprint fingerprint = utenteService.fingerprint();
+        String etag = weakEtag("utenti-" + fingerprint.asTag() + "-p" + pageNumber + "s" + pageSize + fieldsTag(fields, selected));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (fields != null) {
+            // The total comes from the fingerprint already read for the ETag: no count query
+            long total = fingerprint.count() != null ? fingerprint.count() : 0L;
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(new UtentePageDTO(
+                            sparse(utenteService.findFields(selected, PageRequest.of(pageNumber, pageSize)), selected),
+                            pageNumber,
+                            pageSize,
+                            total,
+                            (int) ((total + pageSize - 1) / pageSize)));
+        }
+
+        Page<Utente> result = utenteService.findAll(PageRequest.of(pageNumber, pageSize, Sort.by("id")));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(new UtentePageDTO(
+                        result.getContent().stream().map(utenteMapper::conver).toList(),
+                        result.getNumber(),
+                        result.getSize(),
+                        result.getTotalElements(),
+                        result.getTotalPages())
+                );
+    }
+
+    /**
+     * Single user. The ETag comes from the row version, read without hydrating the entity.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getUtente(@PathVariable Long id,
+                                       @RequestParam(required = false) String fields,
+                                       WebRequest request) {
+        Set<UtenteField> selected;
+        try {
+            selected = UtenteField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(MessageResponse.error(e.getMessage()));
+        }
+
+        Optional<Long> version = utenteService.findVersionById(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = weakEtag("utente-" + id + "-" + version.get() + fieldsTag(fields, selected));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (fields != null) {
+            Optional<UtenteFieldsRow> row = utenteService.findFieldsById(id, selected);
+            if (row.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(utenteMapper.conver(row.get(), selected));
+        }
+
+        Utente utente = utenteService.findById(id);
+        if (utente == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .eTag(weakEtag("utente-" + id + "-" + utente.getVersion()))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(utenteMapper.conver(utente));
+    }
+
+    /**
+     * Several users in one request, e.g. {@code POST /api/utenti/batch {"ids": [7, 3, 42]}}:
+     * up to 1000 ids, read in chunked IN-list queries with their roles. The response keeps
+     * the order of {@code ids} and reports the ones that do not exist in {@code missing}.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<UtenteBatchDTO> getUtentiBatch(@Valid @RequestBody UtenteBatchRequestDTO body) {
+        Map<Long, Utente> byId = utenteService.findAllByIds(body.getIds());
+
+        List<UtenteFindDTO> utenti = new ArrayList<>(body.getIds().size());
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : body.getIds()) {
+            Utente utente = byId.get(id);
+            if (utente == null) {
+                missing.add(id);
+            }
+            utenti.add(utente != null ? utenteMapper.conver(utente) : null);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(new UtenteBatchDTO(utenti, List.copyOf(missing)));
+    }
+
+    /**
+     * Partial update: only the fields present in the body are written, in one
+     * versioned UPDATE with no read first. The expected version comes from
+     * {@code If-Match} (the ETag of {@code GET /api/utenti/{id}}) or the body's
+     * {@code version}; without one the request is refused with 428, and a stale one
+     * gets 409. {@code If-Match: *} only requires the user to exist (RFC 9110), so
+     * the current version is patched and a missing user gets 412. Users may edit
+     * their own profile; account flags need an admin.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchUtente(@PathVariable Long id,
+                                         @Valid @RequestBody UtenteUpdateRequestDTO body,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                         Authentication authentication) {
+        UtentePatch patch = utenteMapper.toPatch(body);
+        if (patch.isEmpty()) {
+            return ResponseEntity.badRequest().body(MessageResponse.error("No fields to update"));
+        }
+
+        boolean admin = authentication.getAuthorities().contains(RoleAuthorities.of(RoleName.ROLE_ADMIN));
+        boolean owner = authentication.getPrincipal() instanceof JwtPrincipal principal && id.equals(principal.getId());
+        if (!admin && (!owner || patch.touchesAccountState())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(MessageResponse.error("Not allowed to update this user"));
+        }
+
+        boolean anyVersion = ifMatch != null && ifMatch.trim().equals("*");
+        Long expectedVersion;
+        if (anyVersion) {
+            expectedVersion = utenteService.findVersionById(id).orElse(null);
+            if (expectedVersion == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(MessageResponse.error("User does not exist"));
+            }
+        } else {
+            expectedVersion = ifMatch != null ? versionFromEtag(ifMatch, id) : body.getVersion();
+            if (expectedVersion == null) {
+                return ifMatch != null
+                        ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(MessageResponse.error("If-Match does not match this user"))
+                        : ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body(MessageResponse.error("Send If-Match or version"));
+            }
+        }
+
+        UtentePatchResult result;
+        try {
+            result = utenteService.patch(id, expectedVersion, patch);
+            for (int attempt = 1; anyVersion && result == UtentePatchResult.CONFLICT && attempt < ANY_VERSION_ATTEMPTS; attempt++) {
+                Optional<Long> current = utenteService.findVersionById(id);
+                if (current.isEmpty()) {
+                    result = UtentePatchResult.NOT_FOUND;
+                    break;
+                }
+                expectedVersion = current.get();
+                result = utenteService.patch(id, expectedVersion, patch);
+            }
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(MessageResponse.error("Email already in use"));
+        }
+
+        return switch (result) {
+            case UPDATED -> ResponseEntity.noContent()
+                    .eTag(weakEtag("utente-" + id + "-" + (expectedVersion + 1)))
+                    .build();
+            case NOT_FOUND -> anyVersion
+                    ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(MessageResponse.error("User does not exist"))
+                    : ResponseEntity.notFound().build();
+            case CONFLICT -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(MessageResponse.error("User was modified concurrently, reload and retry"));
+        };
+    }
+
+    /**
+     * Delta sync: inserts, updates and deletes recorded after the given cursor.
+     * Clients pass back {@code nextCursor} until {@code hasMore} is false.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<UtenteChangesDTO> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                       @RequestParam(defaultValue = "500") int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_CHANGES_LIMIT);
+        return ResponseEntity.ok(utenteChangeService.changesSince(Math.max(since, 0), pageSize));
+    }
+
+    /**
+     * Live stream of user changes (Server-Sent Events). Each event id is a change-log
+     * cursor: on reconnect the browser sends it back as {@code Last-Event-ID} (or pass
+     * {@code ?since=}) and the missed changes are replayed before the live feed.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                             @RequestParam(required = false) Long since) {
+        SseEmitter emitter = utenteStreamService.subscribe(lastEventId != null ? lastEventId : since);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    /**
+     * Search username, email, first and last name through the in-memory index.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<UtentePageDTO> search(@RequestParam String q,
+                                                @RequestParam(defaultValue = "FUZZY") SearchMode mode,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        Page<Utente> result = utenteService.search(q, mode, PageRequest.of(pageNumber, pageSize));
+        return ResponseEntity.ok(new UtentePageDTO(
+                result.getContent().stream().map(utenteMapper::conver).toList(),
+                result.getNumber(),
+                result.getSize(),
+                result.getTotalElements(),
+                result.getTotalPages()));
+    }
+
+    /**
+     * Version out of an ETag of this user ({@code W/"utente-<id>-<version>"}), null otherwise.
+     */
+    private static Long versionFromEtag(String etag, Long id) {
+        String tag = etag.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        String prefix = "utente-" + id + "-";
+        if (!tag.startsWith(prefix)) {
+            return null;
+        }
+        String version = tag.substring(prefix.length());
+        int fieldsSuffix = version.indexOf('-');
+        if (fieldsSuffix >= 0) {
+            // ETag of a fields= response: W/"utente-<id>-<version>-f<fields>"
+            version = version.substring(0, fieldsSuffix);
+        }
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private List<UtenteFindDTO> sparse(List<UtenteFieldsRow> rows, Set<UtenteField> fields) {
+        return rows.stream().map(row -> utenteMapper.conver(row, fields)).toList();
+    }
+
+    /**
+     * ETag suffix of a sparse response, so different field sets never share a cached body.
+     */
+    private static String fieldsTag(String fields, Set<UtenteField> selected) {
+        return fields != null ? "-f" + UtenteField.tag(selected) : "";
+    }
+
+    private static String weakEtag(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+}
@@ -0,0 +1,179 @@
+package com.giggi.basesetup.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One Hikari pool per {@link WorkloadType} behind a routing DataSource. Each pool
+ * reports its metrics (hikaricp.* tagged with pool=&lt;workload&gt;-pool) to Actuator.
+ * <p>
+ * When replicas are configured, read-only transactions go to a replica and everything
+ * else to the workload pools, see {@link ReadOnlyRoutingDataSource}. Each replica also
+ * has one pool per workload, so replica reads keep the same bulkheads.
+ * <p>
+ * Both are behind a {@link LazyConnectionDataSourceProxy}: the physical connection is
+ * borrowed at the first statement, not at transaction begin, see {@link #lazyConnections}.
+ */
+@Configuration
+@EnableConfigurationProperties(WorkloadDataSourceProperties.class)
+public class DataSourceConfig implements DisposableBean {
+
+    // Closed here on shutdown: the routing DataSource handed to Spring is not closeable
+    private final List<HikariDataSource> workloadPools = new CopyOnWriteArrayList<>();
+
+    /**
+     * Replica pools and their lag checks, only when {@code spring.app.datasource.replicas} is set.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "spring.app.datasource.replicas[0].url")
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties dataSourceProperties,
+                                               WorkloadDataSourceProperties workloadProperties,
+                                               MeterRegistry meterRegistry) {
+        List<WorkloadDataSourceProperties.ReplicaSettings> settings = workloadProperties.getReplicas();
+        List<Replica> replicas = new ArrayList<>(settings.size());
+        for (int i = 0; i < settings.size(); i++) {
+            Map<WorkloadType, HikariDataSource> pools = new EnumMap<>(WorkloadType.class);
+            for (WorkloadType workload : WorkloadType.values()) {
+                pools.put(workload, createReplicaPool(dataSourceProperties, i, settings.get(i),
+                        workload, workloadProperties.pool(workload), meterRegistry));
+            }
+            replicas.add(new Replica("replica-" + i, pools));
+        }
+        return new ReplicaLagMonitor(replicas, workloadProperties.getMaxReplicaLag(),
+                workloadProperties.getReplicaCheckInterval(), meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(WorkloadDataSourceProperties workloadProperties,
+                                         ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        return new ReadYourWrites(replicaLagMonitor.getIfAvailable() != null, workloadProperties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 WorkloadDataSourceProperties workloadProperties,
+                                 ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+                                 ReadYourWrites readYourWrites,
+                                 MeterRegistry meterRegistry) {
+        Map<Object, Object> pools = new EnumMap<>(WorkloadType.class);
+        for (WorkloadType workload : WorkloadType.values()) {
+            HikariDataSource pool = createPool(dataSourceProperties, workload, workloadProperties.pool(workload), meterRegistry);
+            workloadPools.add(pool);
+            pools.put(workload, pool);
+        }
+
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource();
+        routing.setTargetDataSources(pools);
+        routing.setDefaultTargetDataSource(pools.get(WorkloadType.BACKGROUND));
+        routing.afterPropertiesSet();
+
+        ReplicaLagMonitor monitor = replicaLagMonitor.getIfAvailable();
+        if (monitor == null) {
+            return lazyConnections(routing);
+        }
+
+        return lazyConnections(new ReadOnlyRoutingDataSource(
+                new WriteTrackingDataSource(routing, readYourWrites),
+                new ReplicaDataSource(monitor.getReplicas(), workloadProperties.getReplicaBalancing(),
+                        routing, readYourWrites, meterRegistry)));
+    }
+
+    /**
+     * JpaTransactionManager takes a connection at begin to switch off autocommit (and to
+     * set read-only), before the transaction and its read-only flag are bound for the
+     * routing, and keeps it until commit. The proxy records those calls and borrows the
+     * real connection at the first statement, so routing sees the transaction and a
+     * transaction that is still waiting (e.g. for a coalesced load) holds no connection.
+     */
+    static DataSource lazyConnections(DataSource target) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(target);
+        // Known up front, otherwise the proxy borrows a connection at startup to read them
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        proxy.afterPropertiesSet();
+        return proxy;
+    }
+
+    /**
+     * Runs after the dataSource bean and everything using it has been destroyed.
+     */
+    @Override
+    public void destroy() {
+        for (HikariDataSource pool : workloadPools) {
+            pool.close();
+        }
+        workloadPools.clear();
+    }
+
+    private static HikariDataSource createPool(DataSourceProperties dataSourceProperties,
+                                               WorkloadType workload,
+                                               WorkloadDataSourceProperties.Pool settings,
+                                               MeterRegistry meterRegistry) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        pool.setPoolName(workload.name().toLowerCase(Locale.ROOT) + "-pool");
+        pool.setMaximumPoolSize(settings.getMaximumPoolSize());
+        pool.setMinimumIdle(Math.min(settings.getMinimumIdle(), settings.getMaximumPoolSize()));
+        pool.setConnectionTimeout(settings.getConnectionTimeout().toMillis());
+        pool.setLeakDetectionThreshold(settings.getLeakDetectionThreshold().toMillis());
+        applyStatementTimeout(pool, settings.getStatementTimeout());
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    /**
+     * Sized like the workload's primary pool, with the shorter of the two connection
+     * timeouts: a replica that cannot hand out a connection falls back to the primary.
+     */
+    private static HikariDataSource createReplicaPool(DataSourceProperties dataSourceProperties,
+                                                      int index,
+                                                      WorkloadDataSourceProperties.ReplicaSettings settings,
+                                                      WorkloadType workload,
+                                                      WorkloadDataSourceProperties.Pool poolSettings,
+                                                      MeterRegistry meterRegistry) {
+        // Started on first use, so a replica that is down does not fail startup
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("replica-" + index + "-" + workload.name().toLowerCase(Locale.ROOT) + "-pool");
+        pool.setJdbcUrl(settings.getUrl());
+        pool.setUsername(settings.getUsername() != null ? settings.getUsername() : dataSourceProperties.determineUsername());
+        pool.setPassword(settings.getPassword() != null ? settings.getPassword() : dataSourceProperties.determinePassword());
+        pool.setReadOnly(true);
+        pool.setMaximumPoolSize(poolSettings.getMaximumPoolSize());
+        pool.setMinimumIdle(Math.min(poolSettings.getMinimumIdle(), poolSettings.getMaximumPoolSize()));
+        pool.setConnectionTimeout(Math.min(settings.getConnectionTimeout().toMillis(),
+                poolSettings.getConnectionTimeout().toMillis()));
+        pool.setLeakDetectionThreshold(poolSettings.getLeakDetectionThreshold().toMillis());
+        applyStatementTimeout(pool, poolSettings.getStatementTimeout());
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    private static void applyStatementTimeout(HikariDataSource pool, Duration statementTimeout) {
+        if (!statementTimeout.isZero()) {
+            pool.setConnectionInitSql("SET SESSION max_execution_time = " + statementTimeout.toMillis());
+        }
+    }
+}
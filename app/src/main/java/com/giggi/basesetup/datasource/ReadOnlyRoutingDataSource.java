@@ -0,0 +1,28 @@
+package com.giggi.basesetup.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends the connections of read-only transactions to the replica side and everything
+ * else to the primary. The flag is read from the transaction synchronization, which is
+ * bound only after JpaTransactionManager has begun the transaction: this relies on the
+ * {@link DataSourceConfig#lazyConnections lazy connection proxy} in front of it to ask
+ * for the connection at the first statement.
+ */
+class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    ReadOnlyRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Boolean.FALSE, primary, Boolean.TRUE, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,129 @@
+package com.giggi.basesetup.datasource;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps a user's reads on the primary for a short window after one of their own
+ * writes commits, so they never read a replica that has not caught up yet.
+ * <p>
+ * The subject is the authenticated principal, or the name bound with
+ * {@link #bindSubject} for anonymous flows such as login.
+ */
+public class ReadYourWrites {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+    private static final ThreadLocal<String> SUBJECT = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final long windowNanos;
+    // Subject -> System.nanoTime() until which its reads stay on the primary
+    private final ConcurrentMap<String, Long> recentWriters = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(boolean enabled, Duration window) {
+        this.enabled = enabled && !window.isZero();
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Bind the subject of the current thread, returning the previous one for {@link #restoreSubject}.
+     */
+    public static String bindSubject(String subject) {
+        String previous = SUBJECT.get();
+        SUBJECT.set(subject);
+        return previous;
+    }
+
+    public static void restoreSubject(String previous) {
+        if (previous == null) {
+            SUBJECT.remove();
+        } else {
+            SUBJECT.set(previous);
+        }
+    }
+
+    /**
+     * Stick the given subjects to the primary once the current transaction commits.
+     */
+    public void markWritten(String... subjects) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            touch(subjects);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                touch(subjects);
+            }
+        });
+    }
+
+    /**
+     * Called when a read-write transaction takes a primary connection.
+     */
+    void markCurrentSubjectWritten() {
+        String subject = currentSubject();
+        if (subject != null) {
+            markWritten(subject);
+        }
+    }
+
+    boolean mustReadFromPrimary() {
+        if (!enabled || recentWriters.isEmpty()) {
+            return false;
+        }
+        String subject = currentSubject();
+        if (subject == null) {
+            return false;
+        }
+        Long until = recentWriters.get(subject);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until > 0) {
+            recentWriters.remove(subject, until);
+            return false;
+        }
+        return true;
+    }
+
+    void purgeExpired() {
+        long now = System.nanoTime();
+        recentWriters.entrySet().removeIf(entry -> now - entry.getValue() > 0);
+    }
+
+    private void touch(String... subjects) {
+        long until = System.nanoTime() + windowNanos;
+        for (String subject : subjects) {
+            if (subject != null) {
+                recentWriters.put(subject, until);
+            }
+        }
+        if (recentWriters.size() > PURGE_THRESHOLD) {
+            purgeExpired();
+        }
+    }
+
+    private static String currentSubject() {
+        String subject = SUBJECT.get();
+        if (subject != null) {
+            return subject;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
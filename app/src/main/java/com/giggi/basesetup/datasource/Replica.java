@@ -0,0 +1,61 @@
+package com.giggi.basesetup.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The pools of one replica, one per workload, with the health state maintained by
+ * {@link ReplicaLagMonitor}.
+ */
+@Getter
+class Replica {
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final String name;
+    @Getter(AccessLevel.NONE)
+    private final Map<WorkloadType, HikariDataSource> pools;
+
+    private volatile boolean available;
+    // -1 until the first successful probe
+    private volatile long lagSeconds = -1;
+    private volatile double latencyMicros;
+
+    Replica(String name, Map<WorkloadType, HikariDataSource> pools) {
+        this.name = name;
+        this.pools = new EnumMap<>(pools);
+    }
+
+    /**
+     * Pool of the current thread's workload.
+     */
+    HikariDataSource getPool() {
+        return getPool(WorkloadContext.current());
+    }
+
+    HikariDataSource getPool(WorkloadType workload) {
+        return pools.get(workload);
+    }
+
+    void probed(long lagSeconds, long roundTripMicros, boolean available) {
+        this.lagSeconds = lagSeconds;
+        this.latencyMicros = latencyMicros == 0
+                ? roundTripMicros
+                : latencyMicros + LATENCY_SMOOTHING * (roundTripMicros - latencyMicros);
+        this.available = available;
+    }
+
+    void markUnavailable() {
+        this.available = false;
+    }
+
+    void close() {
+        for (HikariDataSource pool : pools.values()) {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.giggi.basesetup.datasource;
+
+/**
+ * How read-only transactions are spread over the available replicas.
+ */
+public enum ReplicaBalancing {
+    ROUND_ROBIN,
+    // Replica with the lowest average probe round-trip
+    LEAST_LATENCY
+}
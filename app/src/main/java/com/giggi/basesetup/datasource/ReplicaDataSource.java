@@ -0,0 +1,102 @@
+package com.giggi.basesetup.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only side of the replica routing. Picks an available replica, or falls back
+ * to the primary when every replica is lagging/down or the user has just written.
+ */
+@Slf4j
+class ReplicaDataSource extends AbstractDataSource {
+
+    private final List<Replica> replicas;
+    private final ReplicaBalancing balancing;
+    private final DataSource primary;
+    private final ReadYourWrites readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter replicaReads;
+    private final Counter stickyReads;
+    private final Counter fallbackReads;
+
+    ReplicaDataSource(List<Replica> replicas, ReplicaBalancing balancing, DataSource primary,
+                      ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.balancing = balancing;
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.replicaReads = meterRegistry.counter("datasource.reads", "target", "replica");
+        this.stickyReads = meterRegistry.counter("datasource.reads", "target", "primary", "reason", "read-your-writes");
+        this.fallbackReads = meterRegistry.counter("datasource.reads", "target", "primary", "reason", "no-replica");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (readYourWrites.mustReadFromPrimary()) {
+            stickyReads.increment();
+            return source.get(primary);
+        }
+
+        Replica replica = choose();
+        if (replica != null) {
+            try {
+                Connection connection = source.get(replica.getPool());
+                replicaReads.increment();
+                return connection;
+            } catch (SQLFeatureNotSupportedException e) {
+                // Not a replica failure: Hikari pools do not take per-call credentials
+                throw e;
+            } catch (SQLException e) {
+                log.warn("Replica {} unavailable, reading from the primary: {}", replica.getName(), e.getMessage());
+                replica.markUnavailable();
+            }
+        }
+        fallbackReads.increment();
+        return source.get(primary);
+    }
+
+    private Replica choose() {
+        if (balancing == ReplicaBalancing.LEAST_LATENCY) {
+            Replica best = null;
+            for (Replica replica : replicas) {
+                if (replica.isAvailable() && (best == null || replica.getLatencyMicros() < best.getLatencyMicros())) {
+                    best = replica;
+                }
+            }
+            return best;
+        }
+
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isAvailable()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,105 @@
+package com.giggi.basesetup.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls {@code SHOW REPLICA STATUS} on every replica from a dedicated thread and
+ * takes replicas out of rotation while their lag exceeds the configured maximum.
+ * An instance that is not replicating (empty status) counts as lag 0, which is
+ * what two independent local databases look like.
+ * <p>
+ * Owns the replica pools and closes them on shutdown.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    ReplicaLagMonitor(List<Replica> replicas, Duration maxLag, Duration interval, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLagSeconds = maxLag.toSeconds();
+
+        for (Replica replica : this.replicas) {
+            Gauge.builder("datasource.replica.lag", replica, Replica::getLagSeconds)
+                    .tag("replica", replica.getName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::checkAll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void checkAll() {
+        for (Replica replica : replicas) {
+            check(replica);
+        }
+    }
+
+    private void check(Replica replica) {
+        boolean wasAvailable = replica.isAvailable();
+        long start = System.nanoTime();
+        // Probed through the background pool, so the checks never queue behind logins
+        try (Connection connection = replica.getPool(WorkloadType.BACKGROUND).getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+
+            long lag = status.next() ? lagSeconds(status) : 0;
+            long roundTripMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            boolean available = lag >= 0 && lag <= maxLagSeconds;
+            replica.probed(lag, roundTripMicros, available);
+
+            if (wasAvailable && !available) {
+                log.warn("Replica {} out of rotation, lag: {}", replica.getName(), lag < 0 ? "replication stopped" : lag + " s");
+            } else if (!wasAvailable && available) {
+                log.info("Replica {} back in rotation, lag: {} s", replica.getName(), lag);
+            }
+        } catch (SQLException | RuntimeException e) {
+            replica.markUnavailable();
+            if (wasAvailable) {
+                log.warn("Replica {} out of rotation: {}", replica.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Seconds_Behind_Source is NULL while the replication threads are stopped, reported here as -1.
+     */
+    private static long lagSeconds(ResultSet status) throws SQLException {
+        long lag = status.getLong("Seconds_Behind_Source");
+        return status.wasNull() ? -1 : lag;
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.close();
+        }
+    }
+}
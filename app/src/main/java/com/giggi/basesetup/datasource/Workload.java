@@ -0,0 +1,14 @@
+package com.giggi.basesetup.datasource;
+
+import java.lang.annotation.*;
+
+/**
+ * Routes the transactions started by the annotated service (or method) to the
+ * connection pool of the given workload. A method annotation wins over the class one.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Workload {
+    WorkloadType value();
+}
@@ -0,0 +1,41 @@
+package com.giggi.basesetup.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Binds the {@link Workload} of the invoked service to the thread. It runs before
+ * the transaction interceptor so the connection is taken from the right pool.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadAspect {
+
+    @Around("@within(com.giggi.basesetup.datasource.Workload) || @annotation(com.giggi.basesetup.datasource.Workload)")
+    public Object withWorkload(ProceedingJoinPoint joinPoint) throws Throwable {
+        WorkloadType previous = WorkloadContext.enter(resolve(joinPoint));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private static WorkloadType resolve(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(method, Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Workload.class);
+        }
+        return workload != null ? workload.value() : WorkloadContext.current();
+    }
+}
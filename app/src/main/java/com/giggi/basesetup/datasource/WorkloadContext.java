@@ -0,0 +1,34 @@
+package com.giggi.basesetup.datasource;
+
+/**
+ * Workload of the current thread, read when a connection is borrowed.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<WorkloadType> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static WorkloadType current() {
+        WorkloadType workload = CURRENT.get();
+        return workload != null ? workload : WorkloadType.BACKGROUND;
+    }
+
+    /**
+     * Set the workload and return the previous one, to be passed back to {@link #restore}.
+     */
+    static WorkloadType enter(WorkloadType workload) {
+        WorkloadType previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    static void restore(WorkloadType previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
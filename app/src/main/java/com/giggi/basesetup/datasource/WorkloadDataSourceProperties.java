@@ -0,0 +1,59 @@
+package com.giggi.basesetup.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-workload pool settings under {@code spring.app.datasource.pools.<workload>} and
+ * optional read replicas under {@code spring.app.datasource.replicas[n]}.
+ * URL and credentials of the primary come from the regular {@code spring.datasource.*} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "spring.app.datasource")
+public class WorkloadDataSourceProperties {
+
+    private Map<WorkloadType, Pool> pools = new EnumMap<>(WorkloadType.class);
+
+    // Read-only transactions go to these when configured
+    private List<ReplicaSettings> replicas = new ArrayList<>();
+    private ReplicaBalancing replicaBalancing = ReplicaBalancing.ROUND_ROBIN;
+    private Duration maxReplicaLag = Duration.ofSeconds(5);
+    private Duration replicaCheckInterval = Duration.ofSeconds(2);
+    // How long a user's reads stay on the primary after their own write
+    private Duration readYourWritesWindow = Duration.ofSeconds(10);
+
+    public Pool pool(WorkloadType workload) {
+        return pools.getOrDefault(workload, new Pool());
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 2;
+        private Duration connectionTimeout = Duration.ofSeconds(30);
+        // Connections held longer than this are logged with the borrowing stack trace, 0 disables
+        private Duration leakDetectionThreshold = Duration.ZERO;
+        // MySQL max_execution_time for SELECTs on this pool, 0 disables
+        private Duration statementTimeout = Duration.ZERO;
+    }
+
+    @Getter
+    @Setter
+    public static class ReplicaSettings {
+        private String url;
+        // Default to the primary credentials
+        private String username;
+        private String password;
+        // Pools are sized per workload from spring.app.datasource.pools.*; this caps their wait
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+    }
+}
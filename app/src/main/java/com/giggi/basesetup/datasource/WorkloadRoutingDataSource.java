@@ -0,0 +1,14 @@
+package com.giggi.basesetup.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections from the pool of the current thread's workload.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+}
@@ -0,0 +1,13 @@
+package com.giggi.basesetup.datasource;
+
+/**
+ * Workloads with their own connection pool, so slow listings cannot starve logins.
+ */
+public enum WorkloadType {
+    // Latency-critical login and token lookups
+    AUTH,
+    // Admin listings and bulk reads/writes
+    ADMIN,
+    // Everything not annotated: startup jobs, event listeners, schedulers
+    BACKGROUND
+}
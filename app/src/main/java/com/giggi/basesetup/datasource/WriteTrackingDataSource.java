@@ -0,0 +1,42 @@
+package com.giggi.basesetup.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Primary side of the replica routing: a read-write transaction that actually
+ * touches the database sticks its user to the primary after commit. Like the routing,
+ * it is asked for the connection at the first statement, inside the bound transaction.
+ */
+class WriteTrackingDataSource extends DelegatingDataSource {
+
+    private final ReadYourWrites readYourWrites;
+
+    WriteTrackingDataSource(DataSource primary, ReadYourWrites readYourWrites) {
+        super(primary);
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        trackWrite();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        trackWrite();
+        return super.getConnection(username, password);
+    }
+
+    private void trackWrite() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.markCurrentSubjectWritten();
+        }
+    }
+}
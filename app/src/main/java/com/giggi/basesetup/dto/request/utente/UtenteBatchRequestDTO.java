@@ -0,0 +1,20 @@
+package com.giggi.basesetup.dto.request.utente;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /api/utenti/batch}.
+ */
+@Setter
+@Getter
+public class UtenteBatchRequestDTO {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull Long> ids;
+}
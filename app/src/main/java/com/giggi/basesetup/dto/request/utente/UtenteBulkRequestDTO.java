@@ -0,0 +1,28 @@
+package com.giggi.basesetup.dto.request.utente;
+
+import com.giggi.basesetup.repository.UtenteBulkFilter;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Users targeted by a bulk operation: either explicit {@code ids}, or a filter
+ * (at least one of the other fields).
+ */
+@Setter
+@Getter
+public class UtenteBulkRequestDTO {
+    private List<Long> ids;
+
+    private Boolean enabled;
+    private String role;
+    private LocalDateTime createdBefore;
+    private LocalDateTime createdAfter;
+    private String emailDomain;
+
+    public UtenteBulkFilter toFilter() {
+        return new UtenteBulkFilter(enabled, role, createdBefore, createdAfter, emailDomain);
+    }
+}
@@ -0,0 +1,33 @@
+package com.giggi.basesetup.dto.request.utente;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Body of {@code PATCH /api/utenti/{id}}: null fields are left untouched.
+ * {@code version} is the expected row version, when not sent as {@code If-Match}.
+ */
+@Setter
+@Getter
+public class UtenteUpdateRequestDTO {
+    private Long id;
+
+    private Long version;
+
+    @Size(max = 100)
+    @Email
+    private String email;
+
+    @Size(min = 1, max = 100)
+    private String firstName;
+
+    @Size(min = 1, max = 100)
+    private String lastName;
+
+    // Solo amministratori
+    private Boolean enabled;
+
+    private Boolean accountNonLocked;
+}
@@ -0,0 +1,23 @@
+package com.giggi.basesetup.dto.response.audit;
+
+import com.giggi.basesetup.entity.AuditEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogDTO {
+    private Long id;
+    private AuditEventType eventType;
+    private Boolean success;
+    private String principal;
+    private String remoteAddress;
+    private String detail;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,18 @@
+package com.giggi.basesetup.dto.response.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class AuditLogPageDTO {
+    private List<AuditLogDTO> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+}
@@ -0,0 +1,39 @@
+package com.giggi.basesetup.dto.response.auth;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the profile of the authenticated user.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Profile of the authenticated user")
+public class UserProfileResponse {
+
+    @Schema(description = "User ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Username", example = "johndoe")
+    private String username;
+
+    @Schema(description = "Email address", example = "john.doe@example.com")
+    private String email;
+
+    @Schema(description = "First name", example = "John")
+    private String firstName;
+
+    @Schema(description = "Last name", example = "Doe")
+    private String lastName;
+
+    @Schema(description = "User roles", example = "[\"ROLE_USER\"]")
+    private List<String> roles;
+
+    @Schema(description = "Row version, also used as ETag", example = "3")
+    private Long version;
+}
@@ -0,0 +1,15 @@
+package com.giggi.basesetup.dto.response.utente;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class UtenteAvatarDTO {
+    private String hash;
+    private String contentType;
+    private long size;
+    private String url;
+}
@@ -0,0 +1,20 @@
+package com.giggi.basesetup.dto.response.utente;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Users of a batch lookup. {@code utenti} follows the order of the requested ids,
+ * duplicates included, with null where the id does not exist; those ids are also
+ * listed once in {@code missing}.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class UtenteBatchDTO {
+    private List<UtenteFindDTO> utenti;
+    private List<Long> missing;
+}
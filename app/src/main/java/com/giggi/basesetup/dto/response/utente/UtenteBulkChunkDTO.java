@@ -0,0 +1,20 @@
+package com.giggi.basesetup.dto.response.utente;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One committed chunk of a bulk operation.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class UtenteBulkChunkDTO {
+    private int chunk;
+    private long firstId;
+    private long lastId;
+    private int candidates;
+    private int affected;
+    private long durationMs;
+}
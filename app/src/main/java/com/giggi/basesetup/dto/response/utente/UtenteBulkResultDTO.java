@@ -0,0 +1,26 @@
+package com.giggi.basesetup.dto.response.utente;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk operation. Chunks commit independently: when {@code completed}
+ * is false, the chunks listed in {@code progress} are applied and the rest is not.
+ * {@code hasMore} means the per-request limit was reached; repeat the call to continue.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class UtenteBulkResultDTO {
+    private String operation;
+    private int candidates;
+    private int affected;
+    private boolean completed;
+    private boolean hasMore;
+    private String error;
+    private long durationMs;
+    private List<UtenteBulkChunkDTO> progress;
+}
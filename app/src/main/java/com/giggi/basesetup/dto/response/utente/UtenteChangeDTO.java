@@ -0,0 +1,21 @@
+package com.giggi.basesetup.dto.response.utente;
+
+import com.giggi.basesetup.entity.UtenteChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class UtenteChangeDTO {
+    private long cursor;
+    private Long id;
+    private UtenteChangeType type;
+    private LocalDateTime changedAt;
+
+    // Current state of the user, null for tombstones
+    private UtenteFindDTO utente;
+}
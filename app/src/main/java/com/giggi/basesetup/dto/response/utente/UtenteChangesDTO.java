@@ -0,0 +1,16 @@
+package com.giggi.basesetup.dto.response.utente;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class UtenteChangesDTO {
+    private List<UtenteChangeDTO> changes;
+    private long nextCursor;
+    private boolean hasMore;
+}
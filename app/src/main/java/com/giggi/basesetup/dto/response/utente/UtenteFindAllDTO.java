@@ -2,6 +2,7 @@ package com.giggi.basesetup.dto.response.utente;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.util.List;
@@ -9,6 +10,7 @@ import java.util.List;
 @Getter
 @Setter
 @AllArgsConstructor
+@NoArgsConstructor
 public class UtenteFindAllDTO {
     private List<UtenteFindDTO> UtenteFindAllDTO;
 }
\ No newline at end of file
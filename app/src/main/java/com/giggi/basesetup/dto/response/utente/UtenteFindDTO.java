@@ -1,5 +1,6 @@
 package com.giggi.basesetup.dto.response.utente;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.giggi.basesetup.entity.Role;
 import lombok.Getter;
 import lombok.Setter;
@@ -7,8 +8,11 @@ import lombok.Setter;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import java.util.Map;
 import java.util.Set;
 
+// Null fields are omitted, so sparse responses (fields=) carry only what was requested
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Getter
 @Setter
 public class UtenteFindDTO {
@@ -37,4 +41,7 @@ public class UtenteFindDTO {
     private Boolean credentialsNonExpired;
 
     private Set<RuoloFindDTO> roles;
+
+    // Avatar thumbnail URLs by size (small, medium, large), null without an avatar
+    private Map<String, String> thumbnails;
 }
\ No newline at end of file
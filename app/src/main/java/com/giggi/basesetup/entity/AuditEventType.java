@@ -0,0 +1,8 @@
+package com.giggi.basesetup.entity;
+
+public enum AuditEventType {
+    LOGIN,
+    SIGNUP,
+    TOKEN_VALIDATION,
+    TOKEN_REFRESH
+}
@@ -0,0 +1,49 @@
+package com.giggi.basesetup.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Authentication audit trail. Rows are inserted in batches by
+ * {@link com.giggi.basesetup.audit.AuditLogger}, never through JPA.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "audit_log", indexes = {
+        @Index(name = "idx_audit_log_occurred_at", columnList = "occurredAt"),
+        @Index(name = "idx_audit_log_principal", columnList = "principal")
+})
+public class AuditLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AuditEventType eventType;
+
+    @Column(nullable = false)
+    private Boolean success;
+
+    // Username or email as submitted, null when unknown
+    @Column(length = 100)
+    private String principal;
+
+    @Column(length = 45)
+    private String remoteAddress;
+
+    @Column(length = 255)
+    private String detail;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,60 @@
+package com.giggi.basesetup.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox: one row per user lifecycle event, inserted in the same
+ * transaction as the change and delivered by {@link com.giggi.basesetup.outbox.OutboxRelay}.
+ * Processed rows are kept for a retention period, then compacted.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_pending", columnList = "processedAt, id")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 30)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 20)
+    private String eventType;
+
+    // Change-log cursor of the change, lets consumers order and de-duplicate
+    @Column(nullable = false)
+    private Long changeCursor;
+
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+
+    public OutboxEvent(String aggregateType, Long aggregateId, String eventType, Long changeCursor, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.changeCursor = changeCursor;
+        this.payload = payload;
+    }
+}
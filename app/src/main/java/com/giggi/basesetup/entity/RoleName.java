@@ -0,0 +1,42 @@
+package com.giggi.basesetup.entity;
+
+import lombok.Getter;
+
+@Getter
+public enum RoleName {
+    ROLE_USER("ROLE_USER", "Standard user role"),
+    ROLE_ADMIN("ROLE_ADMIN", "Administrator role"),
+    ROLE_MODERATOR("ROLE_MODERATOR", "Moderator role");
+
+    private final String code;
+    private final String description;
+
+    private static final RoleName[] VALUES = values();
+
+    RoleName(String code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    /**
+     * Bit of this role in a role mask.
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Role for a stored name such as {@code ROLE_ADMIN}, null when unknown.
+     */
+    public static RoleName fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (RoleName role : VALUES) {
+            if (role.code.equals(code)) {
+                return role;
+            }
+        }
+        return null;
+    }
+}
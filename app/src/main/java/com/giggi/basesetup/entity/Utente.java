@@ -7,6 +7,7 @@ import lombok.*;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -19,6 +20,7 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@DynamicUpdate
 @Table(name = "Utenti")
 public class Utente {
 
@@ -72,6 +74,23 @@ public class Utente {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // SHA-256 of the avatar in the content store, null when not set
+    @Column(length = 64)
+    private String avatarHash;
+
+    @Column(length = 100)
+    private String avatarContentType;
+
+    private Long avatarSize;
+
+    // Incremented by Hibernate on every update, used to build ETags
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Utility methods
     public String getFullName() {
         return firstName + " " + lastName;
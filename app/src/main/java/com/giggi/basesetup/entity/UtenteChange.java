@@ -0,0 +1,45 @@
+package com.giggi.basesetup.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only change log of the Utenti table. The generated id is the
+ * monotonically increasing cursor used by delta-sync clients, assigned in
+ * commit order; rows of type DELETED are the tombstones of removed users.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "utenti_changes")
+public class UtenteChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // No foreign key: tombstones outlive the user row
+    @Column(nullable = false)
+    private Long utenteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UtenteChangeType changeType;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+
+    public UtenteChange(Long utenteId, UtenteChangeType changeType) {
+        this.utenteId = utenteId;
+        this.changeType = changeType;
+    }
+}
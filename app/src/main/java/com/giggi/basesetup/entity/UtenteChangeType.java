@@ -0,0 +1,8 @@
+package com.giggi.basesetup.entity;
+
+public enum UtenteChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    ROLES_CHANGED
+}
@@ -0,0 +1,19 @@
+package com.giggi.basesetup.event;
+
+import com.giggi.basesetup.entity.UtenteChangeType;
+
+import java.util.List;
+
+/**
+ * Published inside the writing transaction every time Utenti rows change.
+ * {@code cursors.get(i)} is the change-log id recorded for {@code utenteIds.get(i)}.
+ */
+public record UtenteChangedEvent(List<Long> utenteIds, UtenteChangeType type, List<Long> cursors) {
+
+    public UtenteChangedEvent {
+        if (utenteIds.size() != cursors.size()) {
+            throw new IllegalArgumentException("One cursor per user id expected, got "
+                    + cursors.size() + " for " + utenteIds.size() + " ids");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.giggi.basesetup.mapper;
+
+import com.giggi.basesetup.dto.response.audit.AuditLogDTO;
+import com.giggi.basesetup.entity.AuditLog;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface AuditLogMapper {
+
+    AuditLogDTO convert(AuditLog entity);
+}
@@ -0,0 +1,89 @@
+package com.giggi.basesetup.mapper;
+
+import com.giggi.basesetup.dto.request.auth.RegisterRequest;
+import com.giggi.basesetup.entity.Role;
+import com.giggi.basesetup.entity.RoleName;
+import com.giggi.basesetup.repository.projection.UtenteField;
+import com.giggi.basesetup.repository.projection.UtenteFieldsRow;
+import com.giggi.basesetup.repository.projection.UtenteRoleRow;
+import com.giggi.basesetup.repository.UtentePatch;
+import com.giggi.basesetup.storage.ThumbnailSize;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.giggi.basesetup.entity.Utente;
+import com.giggi.basesetup.dto.request.utente.UtenteCreateRequestDTO;
+import com.giggi.basesetup.dto.request.utente.UtenteUpdateRequestDTO;
+import com.giggi.basesetup.dto.response.utente.RuoloFindDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteFindDTO;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface UtenteMapper {
+
+    Utente convert(UtenteCreateRequestDTO dto);
+
+    Utente convert(UtenteUpdateRequestDTO dto);
+
+    UtentePatch toPatch(UtenteUpdateRequestDTO dto);
+
+    Utente convert(RegisterRequest dto);
+
+    Utente convert(UtenteFindDTO dto);
+
+    @Mapping(target = "thumbnails", expression = "java(thumbnails(entity))")
+    UtenteFindDTO conver(Utente entity);
+
+    List<UtenteFindDTO> convert(List<Utente> entities);
+
+    default Map<String, String> thumbnails(Utente entity) {
+        return ThumbnailSize.urls(entity.getAvatarHash());
+    }
+
+    /**
+     * Sparse response: only the requested fields are set, the others stay null and are not serialized.
+     */
+    default UtenteFindDTO conver(UtenteFieldsRow row, Set<UtenteField> fields) {
+        UtenteFindDTO dto = new UtenteFindDTO();
+        dto.setId(row.id());
+        dto.setUsername(row.get(UtenteField.USERNAME));
+        dto.setEmail(row.get(UtenteField.EMAIL));
+        dto.setFirstName(row.get(UtenteField.FIRST_NAME));
+        dto.setLastName(row.get(UtenteField.LAST_NAME));
+        dto.setEnabled(row.get(UtenteField.ENABLED));
+        dto.setAccountNonExpired(row.get(UtenteField.ACCOUNT_NON_EXPIRED));
+        dto.setAccountNonLocked(row.get(UtenteField.ACCOUNT_NON_LOCKED));
+        dto.setCredentialsNonExpired(row.get(UtenteField.CREDENTIALS_NON_EXPIRED));
+        if (row.roles() != null) {
+            dto.setRoles(row.roles().stream().map(this::ruolo).collect(Collectors.toSet()));
+        }
+        if (fields.contains(UtenteField.THUMBNAILS)) {
+            dto.setThumbnails(ThumbnailSize.urls(row.get(UtenteField.THUMBNAILS)));
+        }
+        return dto;
+    }
+
+    default RuoloFindDTO ruolo(UtenteRoleRow row) {
+        RuoloFindDTO dto = new RuoloFindDTO();
+        dto.setName(row.name());
+        dto.setDescription(row.description());
+        return dto;
+    }
+
+    // Metodo di mapping personalizzato
+    default Set<Role> map(Set<String> value) {
+        if (value == null) return null;
+        return value.stream()
+                .map(roleName -> {
+                    Role role = new Role();
+                    role.setName(roleName);
+                    return role;
+                })
+                .collect(Collectors.toSet());
+    }
+
+}
\ No newline at end of file
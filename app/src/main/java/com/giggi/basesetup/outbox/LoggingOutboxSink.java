@@ -0,0 +1,24 @@
+package com.giggi.basesetup.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default sink: writes every event to the log.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "spring.app.outbox.loggingSink", havingValue = "true", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            log.info("Outbox {} {} #{} (cursor {}): {}", message.aggregateType(), message.eventType(),
+                    message.aggregateId(), message.changeCursor(), message.payload());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.giggi.basesetup.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox row as handed to the sinks. {@code id} is unique per event and can be
+ * used to discard redeliveries.
+ */
+public record OutboxMessage(long id,
+                            String aggregateType,
+                            long aggregateId,
+                            String eventType,
+                            long changeCursor,
+                            String payload,
+                            LocalDateTime createdAt) {
+}
@@ -0,0 +1,169 @@
+package com.giggi.basesetup.outbox;
+
+import com.giggi.basesetup.entity.OutboxEvent;
+import com.giggi.basesetup.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers pending outbox rows to the {@link OutboxSink}s from its own thread,
+ * never from request threads.
+ * <p>
+ * Each round locks a batch with {@code FOR UPDATE SKIP LOCKED}, publishes it and
+ * marks it processed in the same transaction: a crash or a sink failure leaves the
+ * rows pending, so delivery is at-least-once. Processed rows older than the
+ * retention period are deleted in small chunks.
+ */
+@Component
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final int COMPACTION_CHUNK = 1000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long retentionHours;
+    private final long compactionIntervalMs;
+
+    private final Counter published;
+    private final Counter failures;
+    private final Counter compacted;
+    private final Timer roundTimer;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    private long backoffMs;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${spring.app.outbox.batchSize:100}") int batchSize,
+                       @Value("${spring.app.outbox.pollIntervalMs:500}") long pollIntervalMs,
+                       @Value("${spring.app.outbox.retentionHours:24}") long retentionHours,
+                       @Value("${spring.app.outbox.compactionIntervalMs:60000}") long compactionIntervalMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = List.copyOf(sinks);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.retentionHours = retentionHours;
+        this.compactionIntervalMs = compactionIntervalMs;
+
+        this.published = meterRegistry.counter("outbox.published");
+        this.failures = meterRegistry.counter("outbox.failures");
+        this.compacted = meterRegistry.counter("outbox.compacted");
+        this.roundTimer = meterRegistry.timer("outbox.relay.round");
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        scheduler.schedule(this::relay, pollIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::compact, compactionIntervalMs, compactionIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void relay() {
+        if (!running) {
+            return;
+        }
+        long delay = relayOnce();
+        if (running) {
+            scheduler.schedule(this::relay, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * One round. Returns the delay before the next one: none while full batches keep
+     * coming, doubling from the poll interval up to 30 s after consecutive failures.
+     */
+    long relayOnce() {
+        try {
+            int delivered = roundTimer.record(() -> transactionTemplate.execute(status -> deliverBatch()));
+            backoffMs = 0;
+            return delivered == batchSize ? 0 : pollIntervalMs;
+        } catch (RuntimeException e) {
+            failures.increment();
+            backoffMs = backoffMs == 0 ? pollIntervalMs : Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            log.warn("Outbox delivery failed, retrying in {} ms: {}", backoffMs, e.getMessage());
+            return backoffMs;
+        }
+    }
+
+    private int deliverBatch() {
+        List<OutboxEvent> pending = outboxEventRepository.lockPending(batchSize);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxMessage> batch = pending.stream()
+                .map(event -> new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                        event.getEventType(), event.getChangeCursor(), event.getPayload(), event.getCreatedAt()))
+                .toList();
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.publish(batch);
+            } catch (Exception e) {
+                throw new IllegalStateException(sink.getClass().getSimpleName() + ": " + e.getMessage(), e);
+            }
+        }
+
+        outboxEventRepository.markProcessed(batch.stream().map(OutboxMessage::id).toList(), LocalDateTime.now());
+        published.increment(batch.size());
+        return batch.size();
+    }
+
+    void compact() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+            int deleted;
+            do {
+                Integer chunk = transactionTemplate.execute(status ->
+                        outboxEventRepository.deleteProcessedBefore(before, COMPACTION_CHUNK));
+                deleted = chunk != null ? chunk : 0;
+                compacted.increment(deleted);
+            } while (running && deleted == COMPACTION_CHUNK);
+        } catch (RuntimeException e) {
+            log.warn("Outbox compaction failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.giggi.basesetup.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of outbox events (SSE, a message broker, a webhook...). Delivery is
+ * at-least-once: a batch is marked processed only after every sink returned, so a
+ * sink may see the same message again after a failure or a restart.
+ */
+public interface OutboxSink {
+
+    /**
+     * Publish a batch in id order; throw to have the whole batch retried.
+     */
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
@@ -0,0 +1,65 @@
+package com.giggi.basesetup.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giggi.basesetup.event.UtenteChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns user changes into outbox rows. A plain (synchronous) listener, so the rows
+ * are written by the transaction that changed the users and commit or roll back with it.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    static final String AGGREGATE_UTENTE = "Utente";
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events "
+            + "(aggregate_type, aggregate_id, event_type, change_cursor, payload, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onUtenteChanged(UtenteChangedEvent event) {
+        LocalDateTime occurredAt = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(occurredAt);
+        List<Object[]> rows = new ArrayList<>(event.utenteIds().size());
+        for (int i = 0; i < event.utenteIds().size(); i++) {
+            Long utenteId = event.utenteIds().get(i);
+            Long cursor = event.cursors().get(i);
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("id", utenteId);
+            payload.put("type", event.type());
+            payload.put("cursor", cursor);
+            payload.put("occurredAt", occurredAt);
+            rows.add(new Object[]{AGGREGATE_UTENTE, utenteId, event.type().name(), cursor, toJson(payload), createdAt});
+        }
+        // One JDBC batch (a single multi-row INSERT with rewriteBatchedStatements), also for bulk changes;
+        // IDENTITY ids would make Hibernate insert the rows one by one
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.giggi.basesetup.repository;
+
+import com.giggi.basesetup.entity.AuditEventType;
+import com.giggi.basesetup.entity.AuditLog;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
+
+    @Query("SELECT a FROM AuditLog a WHERE (:type IS NULL OR a.eventType = :type) "
+            + "AND (:principal IS NULL OR a.principal = :principal)")
+    Page<AuditLog> search(@Param("type") AuditEventType type,
+                          @Param("principal") String principal,
+                          Pageable pageable);
+}
@@ -0,0 +1,31 @@
+package com.giggi.basesetup.repository;
+
+import com.giggi.basesetup.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED lets several relay instances take disjoint batches
+    @Query(value = "SELECT * FROM outbox_events WHERE processed_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockPending(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processedAt = :processedAt WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE processed_at < :before LIMIT :limit", nativeQuery = true)
+    int deleteProcessedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
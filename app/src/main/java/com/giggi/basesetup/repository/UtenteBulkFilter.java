@@ -0,0 +1,14 @@
+package com.giggi.basesetup.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Selection of users for a bulk operation; null criteria are ignored, the others are AND-ed.
+ */
+public record UtenteBulkFilter(Boolean enabled, String role, LocalDateTime createdBefore,
+                               LocalDateTime createdAfter, String emailDomain) {
+
+    public boolean isEmpty() {
+        return enabled == null && role == null && createdBefore == null && createdAfter == null && emailDomain == null;
+    }
+}
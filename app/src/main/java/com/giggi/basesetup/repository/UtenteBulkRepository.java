@@ -0,0 +1,15 @@
+package com.giggi.basesetup.repository;
+
+import java.util.List;
+
+/**
+ * Id selection for bulk operations on {@code utenti}.
+ */
+public interface UtenteBulkRepository {
+
+    /**
+     * Ids matching {@code filter} after {@code afterId}, ascending: a keyset page,
+     * so rows changed or deleted by earlier chunks do not shift the next one.
+     */
+    List<Long> findIdsAfter(long afterId, UtenteBulkFilter filter, int limit);
+}
@@ -0,0 +1,63 @@
+package com.giggi.basesetup.repository;
+
+import com.giggi.basesetup.entity.Role;
+import com.giggi.basesetup.entity.Utente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class UtenteBulkRepositoryImpl implements UtenteBulkRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIdsAfter(long afterId, UtenteBulkFilter filter, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Utente> root = query.from(Utente.class);
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.greaterThan(root.<Long>get("id"), afterId));
+        if (filter.enabled() != null) {
+            where.add(cb.equal(root.get("enabled"), filter.enabled()));
+        }
+        if (filter.createdBefore() != null) {
+            where.add(cb.lessThan(root.<LocalDateTime>get("createdAt"), filter.createdBefore()));
+        }
+        if (filter.createdAfter() != null) {
+            where.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("createdAt"), filter.createdAfter()));
+        }
+        if (filter.emailDomain() != null) {
+            String domain = filter.emailDomain().toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            where.add(cb.like(cb.lower(root.<String>get("email")), "%@" + domain, '\\'));
+        }
+        if (filter.role() != null) {
+            // EXISTS rather than a join, so a user with several roles appears once
+            Subquery<Long> withRole = query.subquery(Long.class);
+            Root<Utente> user = withRole.from(Utente.class);
+            Join<Utente, Role> role = user.join("roles");
+            withRole.select(user.<Long>get("id"))
+                    .where(cb.equal(user.get("id"), root.get("id")), cb.equal(role.get("name"), filter.role()));
+            where.add(cb.exists(withRole));
+        }
+
+        query.select(root.<Long>get("id"))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,24 @@
+package com.giggi.basesetup.repository;
+
+import com.giggi.basesetup.entity.UtenteChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface UtenteChangeRepository extends JpaRepository<UtenteChange, Long> {
+
+    // Range scan on the primary key, cost depends only on the page size
+    @Query("SELECT c FROM UtenteChange c WHERE c.id > :since ORDER BY c.id")
+    List<UtenteChange> findChangesAfter(@Param("since") long since, Pageable pageable);
+
+    // Reads the last primary key entry only
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM UtenteChange c")
+    long findLatestId();
+}
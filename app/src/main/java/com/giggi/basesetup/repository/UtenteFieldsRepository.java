@@ -0,0 +1,22 @@
+package com.giggi.basesetup.repository;
+
+import com.giggi.basesetup.repository.projection.UtenteField;
+import com.giggi.basesetup.repository.projection.UtenteFieldsRow;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Sparse reads: only the columns of the requested fields, roles only when asked for.
+ */
+public interface UtenteFieldsRepository {
+
+    Optional<UtenteFieldsRow> findFieldsById(Long id, Set<UtenteField> fields);
+
+    /**
+     * Users ordered by id; {@link Pageable#unpaged()} reads them all.
+     */
+    List<UtenteFieldsRow> findFields(Set<UtenteField> fields, Pageable pageable);
+}
@@ -0,0 +1,97 @@
+package com.giggi.basesetup.repository;
+
+import com.giggi.basesetup.entity.Utente;
+import com.giggi.basesetup.repository.projection.UtenteField;
+import com.giggi.basesetup.repository.projection.UtenteFieldsRow;
+import com.giggi.basesetup.repository.projection.UtenteRoleRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A Criteria tuple query over the requested attributes of Utenti, plus one
+ * {@code user_roles}/{@code roles} query for the whole result when roles are requested.
+ */
+public class UtenteFieldsRepositoryImpl implements UtenteFieldsRepository {
+
+    private static final String ROLES_QUERY = "SELECT new com.giggi.basesetup.repository.projection.UtenteRoleRow(u.id, r.name, r.description) "
+            + "FROM Utente u JOIN u.roles r";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<UtenteFieldsRow> findFieldsById(Long id, Set<UtenteField> fields) {
+        return select(fields, id, Pageable.unpaged()).stream().findFirst();
+    }
+
+    @Override
+    public List<UtenteFieldsRow> findFields(Set<UtenteField> fields, Pageable pageable) {
+        return select(fields, null, pageable);
+    }
+
+    private List<UtenteFieldsRow> select(Set<UtenteField> fields, Long id, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Utente> root = query.from(Utente.class);
+
+        List<Selection<?>> columns = new ArrayList<>();
+        columns.add(root.get(UtenteField.ID.getAttribute()).alias(UtenteField.ID.getAttribute()));
+        for (UtenteField field : fields) {
+            if (field != UtenteField.ID && field.getAttribute() != null) {
+                columns.add(root.get(field.getAttribute()).alias(field.getAttribute()));
+            }
+        }
+        query.multiselect(columns).orderBy(cb.asc(root.get("id")));
+        if (id != null) {
+            query.where(cb.equal(root.get("id"), id));
+        }
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<Tuple> tuples = typed.getResultList();
+
+        Map<Long, List<UtenteRoleRow>> roles = fields.contains(UtenteField.ROLES) && !tuples.isEmpty()
+                ? findRoles(tuples, id == null && pageable.isUnpaged())
+                : null;
+        List<UtenteFieldsRow> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Long userId = tuple.get(UtenteField.ID.getAttribute(), Long.class);
+            rows.add(new UtenteFieldsRow(tuple, roles != null ? roles.getOrDefault(userId, List.of()) : null));
+        }
+        return rows;
+    }
+
+    /**
+     * Roles of the selected users; for a full read, of every user, without an IN list.
+     */
+    private Map<Long, List<UtenteRoleRow>> findRoles(List<Tuple> tuples, boolean everyUser) {
+        TypedQuery<UtenteRoleRow> query;
+        if (everyUser) {
+            query = entityManager.createQuery(ROLES_QUERY, UtenteRoleRow.class);
+        } else {
+            List<Long> ids = tuples.stream()
+                    .map(tuple -> tuple.get(UtenteField.ID.getAttribute(), Long.class))
+                    .toList();
+            query = entityManager.createQuery(ROLES_QUERY + " WHERE u.id IN :ids", UtenteRoleRow.class)
+                    .setParameter("ids", ids);
+        }
+        return query.getResultList().stream()
+                .collect(Collectors.groupingBy(UtenteRoleRow::utenteId));
+    }
+}
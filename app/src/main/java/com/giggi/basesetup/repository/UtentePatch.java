@@ -0,0 +1,15 @@
+package com.giggi.basesetup.repository;
+
+/**
+ * Columns to change in a partial update; null means unchanged.
+ */
+public record UtentePatch(String email, String firstName, String lastName, Boolean enabled, Boolean accountNonLocked) {
+
+    public boolean isEmpty() {
+        return email == null && firstName == null && lastName == null && enabled == null && accountNonLocked == null;
+    }
+
+    public boolean touchesAccountState() {
+        return enabled != null || accountNonLocked != null;
+    }
+}
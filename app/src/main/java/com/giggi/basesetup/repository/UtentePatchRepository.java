@@ -0,0 +1,15 @@
+package com.giggi.basesetup.repository;
+
+/**
+ * Partial updates of {@code utenti} without loading the entity first.
+ */
+public interface UtentePatchRepository {
+
+    /**
+     * Apply the non-null columns of {@code patch} if the row still has {@code expectedVersion},
+     * incrementing the version.
+     *
+     * @return 1 when updated, 0 when the user is missing or the version is stale
+     */
+    int patch(Long id, long expectedVersion, UtentePatch patch);
+}
@@ -0,0 +1,53 @@
+package com.giggi.basesetup.repository;
+
+import com.giggi.basesetup.entity.Utente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+
+/**
+ * One {@code UPDATE utenti SET <sent columns>, version = version + 1, updated_at = ?
+ * WHERE id = ? AND version = ?}: the version check replaces the SELECT that a
+ * load-and-merge would need, and a concurrent writer makes it match no row.
+ */
+public class UtentePatchRepositoryImpl implements UtentePatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patch(Long id, long expectedVersion, UtentePatch patch) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Utente> update = cb.createCriteriaUpdate(Utente.class);
+        Root<Utente> root = update.from(Utente.class);
+
+        if (patch.email() != null) {
+            update.set(root.<String>get("email"), patch.email());
+        }
+        if (patch.firstName() != null) {
+            update.set(root.<String>get("firstName"), patch.firstName());
+        }
+        if (patch.lastName() != null) {
+            update.set(root.<String>get("lastName"), patch.lastName());
+        }
+        if (patch.enabled() != null) {
+            update.set(root.<Boolean>get("enabled"), patch.enabled());
+        }
+        if (patch.accountNonLocked() != null) {
+            update.set(root.<Boolean>get("accountNonLocked"), patch.accountNonLocked());
+        }
+
+        // Bulk updates bypass @Version and @UpdateTimestamp, so both are set here
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.set(root.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        update.where(
+                cb.equal(root.get("id"), id),
+                cb.equal(root.get("version"), expectedVersion));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
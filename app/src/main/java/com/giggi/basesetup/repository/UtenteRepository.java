@@ -0,0 +1,110 @@
+package com.giggi.basesetup.repository;
+
+import com.giggi.basesetup.repository.projection.UtenteAvatar;
+import com.giggi.basesetup.repository.projection.UtenteSearchRow;
+import com.giggi.basesetup.repository.projection.UtentiFingerprint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import com.giggi.basesetup.entity.Utente;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import javax.swing.text.html.Option;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface UtenteRepository extends JpaRepository<Utente, Long>, UtentePatchRepository, UtenteBulkRepository,
+        UtenteFieldsRepository {
+    @Query("SELECT u FROM Utente u WHERE u.username = :usernameOrEmail OR u.email = :usernameOrEmail")
+    Optional<Utente> findByUsernameOrEmail(@Param("usernameOrEmail") String usernameOrEmail);
+
+    Optional<Utente> findByUsername(String username);
+
+    // Roles in the same query: callers map every user to a DTO with its roles,
+    // outside the transaction since open-in-view is off
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    List<Utente> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    List<Utente> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    Optional<Utente> findById(Long id);
+
+    // Ids only: a fetch join on roles cannot be paginated in SQL
+    @Query(value = "SELECT u.id FROM Utente u", countQuery = "SELECT COUNT(u) FROM Utente u")
+    Page<Long> findPageOfIds(Pageable pageable);
+
+    boolean existsByEmail(String email);
+
+    boolean existsByUsername(String username);
+
+    @Query("SELECT u.version FROM Utente u WHERE u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.giggi.basesetup.repository.projection.UtentiFingerprint(COUNT(u), MAX(u.id), SUM(u.version)) FROM Utente u")
+    UtentiFingerprint fingerprint();
+
+    @Query("SELECT new com.giggi.basesetup.repository.projection.UtenteSearchRow(u.id, u.version, u.username, u.email, u.firstName, u.lastName) " +
+            "FROM Utente u WHERE u.id > :afterId ORDER BY u.id")
+    List<UtenteSearchRow> findSearchRowsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT new com.giggi.basesetup.repository.projection.UtenteSearchRow(u.id, u.version, u.username, u.email, u.firstName, u.lastName) " +
+            "FROM Utente u WHERE u.id IN :ids")
+    List<UtenteSearchRow> findSearchRowsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.giggi.basesetup.repository.projection.UtenteAvatar(u.id, u.username, u.avatarHash, u.avatarContentType, u.avatarSize) " +
+            "FROM Utente u WHERE u.id = :id")
+    Optional<UtenteAvatar> findAvatarById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT u.avatarHash FROM Utente u WHERE u.avatarHash IN :hashes")
+    List<String> findReferencedAvatarHashes(@Param("hashes") Collection<String> hashes);
+
+    // Bulk operations: each chunk locks the rows it will change, then updates them in one statement
+
+    @Query(value = "SELECT id FROM utenti WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockExisting(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT id FROM utenti WHERE id IN (:ids) AND enabled = true ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockEnabled(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT u.id FROM utenti u WHERE u.id IN (:ids) AND NOT EXISTS "
+            + "(SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id AND ur.role_id = :roleId) ORDER BY u.id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockWithoutRole(@Param("ids") Collection<Long> ids, @Param("roleId") Long roleId);
+
+    // version is bumped by hand: bulk statements bypass @Version, and ETags are built from it
+    @Modifying
+    @Query(value = "UPDATE utenti SET enabled = false, version = version + 1, updated_at = :now WHERE id IN (:ids)",
+            nativeQuery = true)
+    int disableAll(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_roles (user_id, role_id) SELECT id, :roleId FROM utenti WHERE id IN (:ids)",
+            nativeQuery = true)
+    int grantRoleToAll(@Param("ids") Collection<Long> ids, @Param("roleId") Long roleId);
+
+    @Modifying
+    @Query(value = "UPDATE utenti SET version = version + 1, updated_at = :now WHERE id IN (:ids)", nativeQuery = true)
+    int touchAll(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_roles WHERE user_id IN (:ids)", nativeQuery = true)
+    int deleteRolesOfAll(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM utenti WHERE id IN (:ids)", nativeQuery = true)
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,8 @@
+package com.giggi.basesetup.repository.projection;
+
+/**
+ * Avatar metadata of a user, read without loading the entity.
+ * {@code hash} is null when the user has no avatar.
+ */
+public record UtenteAvatar(Long utenteId, String username, String hash, String contentType, Long size) {
+}
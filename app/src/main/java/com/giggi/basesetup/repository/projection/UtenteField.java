@@ -0,0 +1,75 @@
+package com.giggi.basesetup.repository.projection;
+
+import lombok.Getter;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Fields of a user response that can be requested with {@code fields=}. Each maps to
+ * one Utente attribute, except {@link #ROLES}, which needs the role join.
+ */
+@Getter
+public enum UtenteField {
+    ID("id", "id"),
+    USERNAME("username", "username"),
+    EMAIL("email", "email"),
+    FIRST_NAME("firstName", "firstName"),
+    LAST_NAME("lastName", "lastName"),
+    ENABLED("enabled", "enabled"),
+    ACCOUNT_NON_EXPIRED("accountNonExpired", "accountNonExpired"),
+    ACCOUNT_NON_LOCKED("accountNonLocked", "accountNonLocked"),
+    CREDENTIALS_NON_EXPIRED("credentialsNonExpired", "credentialsNonExpired"),
+    ROLES("roles", null),
+    THUMBNAILS("thumbnails", "avatarHash");
+
+    private static final UtenteField[] VALUES = values();
+
+    // Name in the JSON response and in fields=
+    private final String jsonName;
+    // Utente attribute to select, null for roles
+    private final String attribute;
+
+    UtenteField(String jsonName, String attribute) {
+        this.jsonName = jsonName;
+        this.attribute = attribute;
+    }
+
+    /**
+     * Fields of a comma separated list such as {@code id,username,roles}; {@link #ID}
+     * is always included. Null or blank means every field.
+     *
+     * @throws IllegalArgumentException on an unknown name
+     */
+    public static Set<UtenteField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(UtenteField.class);
+        }
+        Set<UtenteField> parsed = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            parsed.add(fromJsonName(name.trim()));
+        }
+        return parsed;
+    }
+
+    /**
+     * Short stable tag of a field set, for ETags.
+     */
+    public static String tag(Set<UtenteField> fields) {
+        int mask = 0;
+        for (UtenteField field : fields) {
+            mask |= 1 << field.ordinal();
+        }
+        return Integer.toHexString(mask);
+    }
+
+    private static UtenteField fromJsonName(String name) {
+        for (UtenteField field : VALUES) {
+            if (field.jsonName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field '" + name.toLowerCase(Locale.ROOT) + "'");
+    }
+}
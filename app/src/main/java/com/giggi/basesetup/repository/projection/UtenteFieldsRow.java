@@ -0,0 +1,29 @@
+package com.giggi.basesetup.repository.projection;
+
+import jakarta.persistence.Tuple;
+
+import java.util.List;
+
+/**
+ * A user read with only the requested columns. {@code roles} is null unless
+ * {@link UtenteField#ROLES} was requested.
+ */
+public record UtenteFieldsRow(Tuple values, List<UtenteRoleRow> roles) {
+
+    public Long id() {
+        return values.get(UtenteField.ID.getAttribute(), Long.class);
+    }
+
+    /**
+     * Value of a selected column, null when the field was not requested.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(UtenteField field) {
+        for (var element : values.getElements()) {
+            if (field.getAttribute().equals(element.getAlias())) {
+                return (T) values.get(element);
+            }
+        }
+        return null;
+    }
+}
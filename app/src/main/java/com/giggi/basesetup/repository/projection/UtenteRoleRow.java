@@ -0,0 +1,7 @@
+package com.giggi.basesetup.repository.projection;
+
+/**
+ * One role of one user, read without loading either entity.
+ */
+public record UtenteRoleRow(Long utenteId, String name, String description) {
+}
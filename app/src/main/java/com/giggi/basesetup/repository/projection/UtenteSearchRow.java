@@ -0,0 +1,8 @@
+package com.giggi.basesetup.repository.projection;
+
+/**
+ * Searchable columns of a user, loaded without the password or the roles.
+ */
+public record UtenteSearchRow(Long id, Long version, String username, String email,
+                              String firstName, String lastName) {
+}
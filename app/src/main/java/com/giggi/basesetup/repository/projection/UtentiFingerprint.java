@@ -0,0 +1,17 @@
+package com.giggi.basesetup.repository.projection;
+
+/**
+ * Aggregate snapshot of the Utenti table used to detect changes without loading rows.
+ * Inserts always raise {@code maxId}, deletes lower {@code count} and updates raise
+ * {@code versionSum}, so any write produces a different fingerprint.
+ */
+public record UtentiFingerprint(Long count, Long maxId, Long versionSum) {
+
+    public String asTag() {
+        return nonNull(count) + "-" + nonNull(maxId) + "-" + nonNull(versionSum);
+    }
+
+    private static long nonNull(Long value) {
+        return value != null ? value : 0L;
+    }
+}
@@ -0,0 +1,10 @@
+package com.giggi.basesetup.search;
+
+/**
+ * Matching strategies of the user search, each one including the stricter ones before it.
+ */
+public enum SearchMode {
+    PREFIX,
+    SUBSTRING,
+    FUZZY
+}
@@ -0,0 +1,9 @@
+package com.giggi.basesetup.search;
+
+import java.util.List;
+
+/**
+ * One page of user ids ordered by relevance, plus the total number of matches.
+ */
+public record UtenteSearchHits(List<Long> ids, int total) {
+}
@@ -0,0 +1,335 @@
+package com.giggi.basesetup.search;
+
+import com.giggi.basesetup.repository.projection.UtenteSearchRow;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over username, email, first name and last name.
+ * <ul>
+ *     <li>prefix: range scan over the sorted term dictionary</li>
+ *     <li>substring: intersection of trigram posting lists, then verification</li>
+ *     <li>fuzzy: candidate terms sharing bigrams, filtered by bounded edit distance</li>
+ * </ul>
+ * Writes are rare compared to lookups, so a read/write lock guards plain collections.
+ */
+@Component
+public class UtenteSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int FUZZY_GRAM = 2;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int SCORE_EXACT = 100;
+    private static final int SCORE_PREFIX = 60;
+    private static final int SCORE_SUBSTRING = 30;
+    private static final int SCORE_FUZZY = 20;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    // Whole field values and their words -> user ids, sorted for prefix scans
+    private final NavigableMap<String, Set<Long>> terms = new TreeMap<>();
+    // Trigrams of whole field values -> user ids
+    private final Map<String, Set<Long>> fieldGrams = new HashMap<>();
+    // Padded bigrams of terms -> terms, used to find fuzzy candidates
+    private final Map<String, Set<String>> termGrams = new HashMap<>();
+
+    private record Document(long id, long version, String[] fields, Set<String> terms, Set<String> grams) {
+    }
+
+    /**
+     * Index or re-index a user. Rows older than the indexed version are ignored.
+     */
+    public void put(UtenteSearchRow row) {
+        lock.writeLock().lock();
+        try {
+            index(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search all query words (AND semantics) and return one page of ids by descending relevance.
+     */
+    public UtenteSearchHits search(String query, SearchMode mode, int offset, int limit) {
+        String normalized = normalize(query).trim();
+        if (normalized.isEmpty()) {
+            return new UtenteSearchHits(List.of(), 0);
+        }
+
+        Map<Long, Integer> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String word : WHITESPACE.split(normalized)) {
+                Map<Long, Integer> wordScores = searchWord(word, mode);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((id, score) -> score + wordScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        int from = Math.min(offset, ranked.size());
+        int to = Math.min(from + limit, ranked.size());
+        List<Long> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(ranked.get(i).getKey());
+        }
+        return new UtenteSearchHits(ids, ranked.size());
+    }
+
+    private Map<Long, Integer> searchWord(String word, SearchMode mode) {
+        Map<Long, Integer> scores = new HashMap<>();
+
+        for (Map.Entry<String, Set<Long>> entry : terms.subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+            int score = entry.getKey().equals(word) ? SCORE_EXACT : SCORE_PREFIX;
+            for (Long id : entry.getValue()) {
+                scores.merge(id, score, Math::max);
+            }
+        }
+
+        if (mode != SearchMode.PREFIX && word.length() >= GRAM) {
+            for (Long id : substringCandidates(word)) {
+                if (!scores.containsKey(id) && containsInAnyField(documents.get(id), word)) {
+                    scores.put(id, SCORE_SUBSTRING);
+                }
+            }
+        }
+
+        if (mode == SearchMode.FUZZY) {
+            int maxDistance = word.length() <= 4 ? 1 : 2;
+            for (String term : fuzzyCandidates(word, maxDistance)) {
+                int distance = boundedEditDistance(word, term, maxDistance);
+                if (distance <= maxDistance) {
+                    int score = SCORE_FUZZY - 5 * distance;
+                    for (Long id : terms.get(term)) {
+                        scores.merge(id, score, Math::max);
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    private Collection<Long> substringCandidates(String word) {
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : grams(word, GRAM, false)) {
+            Set<Long> ids = fieldGrams.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> candidates = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(postings.get(i));
+        }
+        return candidates;
+    }
+
+    private Set<String> fuzzyCandidates(String word, int maxDistance) {
+        Set<String> queryGrams = grams(word, FUZZY_GRAM, true);
+        // q-gram lemma: one edit destroys at most FUZZY_GRAM grams, a transposition one more
+        int minShared = Math.max(1, queryGrams.size() - maxDistance * (FUZZY_GRAM + 1));
+
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<String> candidates = termGrams.get(gram);
+            if (candidates != null) {
+                for (String term : candidates) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+
+        Set<String> result = new HashSet<>();
+        shared.forEach((term, count) -> {
+            if (count >= minShared && Math.abs(term.length() - word.length()) <= maxDistance) {
+                result.add(term);
+            }
+        });
+        return result;
+    }
+
+    private void index(UtenteSearchRow row) {
+        long version = row.version() != null ? row.version() : 0L;
+        Document existing = documents.get(row.id());
+        if (existing != null) {
+            if (existing.version() > version) {
+                return;
+            }
+            unindex(row.id());
+        }
+
+        String[] fields = {
+                normalize(row.username()),
+                normalize(row.email()),
+                normalize(row.firstName()),
+                normalize(row.lastName())
+        };
+
+        Set<String> docTerms = new HashSet<>();
+        Set<String> docGrams = new HashSet<>();
+        for (String field : fields) {
+            if (field.isEmpty()) {
+                continue;
+            }
+            docTerms.add(field);
+            for (String word : WORD_SEPARATORS.split(field)) {
+                if (!word.isEmpty()) {
+                    docTerms.add(word);
+                }
+            }
+            docGrams.addAll(grams(field, GRAM, false));
+        }
+
+        for (String term : docTerms) {
+            Set<Long> ids = terms.get(term);
+            if (ids == null) {
+                ids = new HashSet<>();
+                terms.put(term, ids);
+                for (String gram : grams(term, FUZZY_GRAM, true)) {
+                    termGrams.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+                }
+            }
+            ids.add(row.id());
+        }
+        for (String gram : docGrams) {
+            fieldGrams.computeIfAbsent(gram, g -> new HashSet<>()).add(row.id());
+        }
+
+        documents.put(row.id(), new Document(row.id(), version, fields, docTerms, docGrams));
+    }
+
+    private void unindex(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+
+        for (String term : document.terms()) {
+            Set<Long> ids = terms.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                terms.remove(term);
+                for (String gram : grams(term, FUZZY_GRAM, true)) {
+                    Set<String> gramTerms = termGrams.get(gram);
+                    if (gramTerms != null && gramTerms.remove(term) && gramTerms.isEmpty()) {
+                        termGrams.remove(gram);
+                    }
+                }
+            }
+        }
+        for (String gram : document.grams()) {
+            Set<Long> ids = fieldGrams.get(gram);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                fieldGrams.remove(gram);
+            }
+        }
+    }
+
+    private static boolean containsInAnyField(Document document, String word) {
+        if (document == null) {
+            return false;
+        }
+        for (String field : document.fields()) {
+            if (field.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> grams(String value, int size, boolean padded) {
+        String text = padded ? "\u0002" + value + "\u0003" : value;
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + size <= text.length(); i++) {
+            result.add(text.substring(i, i + size));
+        }
+        return result;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions)
+     * that gives up as soon as it exceeds {@code max}.
+     */
+    static int boundedEditDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,153 @@
+package com.giggi.basesetup.search;
+
+import com.giggi.basesetup.dto.response.utente.UtenteChangeDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteChangesDTO;
+import com.giggi.basesetup.entity.UtenteChangeType;
+import com.giggi.basesetup.repository.UtenteRepository;
+import com.giggi.basesetup.repository.projection.UtenteSearchRow;
+import com.giggi.basesetup.service.UtenteChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@link UtenteSearchIndex} in sync with the Utenti table: a keyset-paged
+ * rebuild at startup, then incremental updates read from the change log.
+ * <p>
+ * Every instance tails {@link UtenteChangeService#changesSince} from its own thread
+ * with a stored cursor, so it applies the changes written by any instance, not only
+ * its own. The cursor is taken before the rebuild: changes committed while it runs
+ * are applied again afterwards, which is harmless since stale rows are ignored.
+ */
+@Component
+@Slf4j
+public class UtenteSearchIndexer implements SmartLifecycle {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final UtenteSearchIndex searchIndex;
+    private final UtenteRepository utenteRepository;
+    private final UtenteChangeService utenteChangeService;
+
+    private final long pollIntervalMs;
+    private final int pageSize;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    // Last change-log cursor applied, -1 until the index has been built
+    private volatile long position = -1;
+
+    public UtenteSearchIndexer(UtenteSearchIndex searchIndex,
+                               UtenteRepository utenteRepository,
+                               UtenteChangeService utenteChangeService,
+                               @Value("${spring.app.search.pollIntervalMs:1000}") long pollIntervalMs,
+                               @Value("${spring.app.search.pageSize:500}") int pageSize) {
+        this.searchIndex = searchIndex;
+        this.utenteRepository = utenteRepository;
+        this.utenteChangeService = utenteChangeService;
+        this.pollIntervalMs = pollIntervalMs;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        scheduler.schedule(this::poll, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void poll() {
+        if (!running) {
+            return;
+        }
+        long delay = pollOnce();
+        if (running) {
+            scheduler.schedule(this::poll, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Build the index on the first call, then apply one page of the change log per
+     * call. Returns the delay before the next one: none while full pages keep coming.
+     */
+    long pollOnce() {
+        try {
+            if (position < 0) {
+                long cursor = utenteChangeService.latestCursor();
+                rebuild();
+                position = cursor;
+                return 0;
+            }
+            UtenteChangesDTO changes = utenteChangeService.changesSince(position, pageSize);
+            apply(changes.getChanges());
+            position = changes.getNextCursor();
+            return changes.isHasMore() ? 0 : pollIntervalMs;
+        } catch (RuntimeException e) {
+            log.warn("Search index update failed, retrying in {} ms: {}", pollIntervalMs, e.getMessage());
+            return pollIntervalMs;
+        }
+    }
+
+    /**
+     * Load the index in batches of ascending ids.
+     */
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        long lastId = 0;
+        List<UtenteSearchRow> batch;
+        do {
+            batch = utenteRepository.findSearchRowsAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            batch.forEach(searchIndex::put);
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).id();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        log.info("User search index built: {} users in {} ms", searchIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * The page holds the latest change of each user; the rows of the live ones are
+     * read again, a user deleted in a later page is simply not found.
+     */
+    private void apply(List<UtenteChangeDTO> changes) {
+        List<Long> liveIds = new ArrayList<>(changes.size());
+        for (UtenteChangeDTO change : changes) {
+            if (change.getType() == UtenteChangeType.DELETED) {
+                searchIndex.remove(change.getId());
+            } else {
+                liveIds.add(change.getId());
+            }
+        }
+        if (!liveIds.isEmpty()) {
+            utenteRepository.findSearchRowsByIds(liveIds).forEach(searchIndex::put);
+        }
+    }
+}
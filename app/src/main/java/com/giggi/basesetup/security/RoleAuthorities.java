@@ -0,0 +1,72 @@
+package com.giggi.basesetup.security;
+
+import com.giggi.basesetup.entity.RoleName;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Canonical authorities for {@link RoleName}. Roles travel as a bitmask (see
+ * {@link RoleName#mask()}); every possible mask maps to one preallocated immutable
+ * list, so building an authentication allocates no authority objects and role
+ * checks are a single AND.
+ */
+public final class RoleAuthorities {
+
+    private static final RoleName[] ROLES = RoleName.values();
+    private static final GrantedAuthority[] AUTHORITIES = new GrantedAuthority[ROLES.length];
+    private static final List<List<GrantedAuthority>> BY_MASK;
+
+    static {
+        for (RoleName role : ROLES) {
+            AUTHORITIES[role.ordinal()] = new SimpleGrantedAuthority(role.getCode());
+        }
+        int combinations = 1 << ROLES.length;
+        List<List<GrantedAuthority>> byMask = new ArrayList<>(combinations);
+        for (int mask = 0; mask < combinations; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>(Integer.bitCount(mask));
+            for (RoleName role : ROLES) {
+                if ((mask & role.mask()) != 0) {
+                    authorities.add(AUTHORITIES[role.ordinal()]);
+                }
+            }
+            byMask.add(List.copyOf(authorities));
+        }
+        BY_MASK = List.copyOf(byMask);
+    }
+
+    private RoleAuthorities() {
+    }
+
+    public static GrantedAuthority of(RoleName role) {
+        return AUTHORITIES[role.ordinal()];
+    }
+
+    /**
+     * Shared immutable authority list for a role mask; unknown bits are ignored.
+     */
+    public static List<GrantedAuthority> forMask(int mask) {
+        return BY_MASK.get(mask & (BY_MASK.size() - 1));
+    }
+
+    /**
+     * Mask of the known role names in {@code names}; unknown names are ignored.
+     */
+    public static int maskOf(Collection<String> names) {
+        int mask = 0;
+        for (String name : names) {
+            RoleName role = RoleName.fromCode(name);
+            if (role != null) {
+                mask |= role.mask();
+            }
+        }
+        return mask;
+    }
+
+    public static boolean hasRole(int mask, RoleName role) {
+        return (mask & role.mask()) != 0;
+    }
+}
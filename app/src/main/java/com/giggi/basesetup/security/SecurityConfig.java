@@ -3,6 +3,7 @@ package com.giggi.basesetup.security;
 
 import com.giggi.basesetup.security.jwt.AuthEntryPointJwt;
 import com.giggi.basesetup.security.jwt.AuthTokenFilter;
+import com.giggi.basesetup.security.limit.ConcurrencyLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,6 +38,7 @@ public class SecurityConfig {
 
     private final AuthEntryPointJwt unauthorizedHandler;
     private final AuthTokenFilter authTokenFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
 
     /**
      * Password encoder bean using BCrypt hashing algorithm.
@@ -103,6 +105,9 @@ public class SecurityConfig {
 
                 // Configure authorization rules
                 .authorizeHttpRequests(auth -> auth
+                        // Profile of the caller, the only authenticated endpoint under /api/auth
+                        .requestMatchers("/api/auth/me").authenticated()
+
                         // Public endpoints - Authentication
                         .requestMatchers("/api/auth/**").permitAll()
 
@@ -122,6 +127,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/utentes/**").hasRole("USER")
 
                         // Admin only endpoints
+                        .requestMatchers("/api/audit/**").hasRole("ADMIN")
+                        .requestMatchers("/api/utenti/bulk/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/users").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/users/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/users").hasRole("ADMIN")
@@ -135,7 +142,10 @@ public class SecurityConfig {
                 )
 
                 // Add JWT token filter before UsernamePasswordAuthenticationFilter
-                .addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class)
+
+                // Admission control ahead of token parsing, so refused requests cost nothing
+                .addFilterBefore(concurrencyLimitFilter, AuthTokenFilter.class);
 
         return http.build();
     }
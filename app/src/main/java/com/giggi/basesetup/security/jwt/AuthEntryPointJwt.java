@@ -0,0 +1,131 @@
+package com.giggi.basesetup.security.jwt;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JWT Authentication entry point that handles unauthorized access attempts.
+ * Returns a JSON response with error details when authentication fails.
+ * <p>
+ * 401s are the most frequent response under credential-stuffing or expired-token
+ * waves, so the body is assembled from pre-serialized byte templates (only path and
+ * timestamp change) and logging is sampled.
+ */
+@Component
+@Slf4j
+public class AuthEntryPointJwt implements AuthenticationEntryPoint {
+
+    private static final int MAX_CACHED_PREFIXES = 64;
+    private static final long LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final byte[] PATH_OPEN = ",\"path\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TIMESTAMP_OPEN = "\",\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BODY_CLOSE = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // "{status, error, message" prefix of the body, one per distinct exception message
+    private final ConcurrentMap<String, byte[]> prefixes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Counter> counters = new ConcurrentHashMap<>();
+
+    private final LongAdder sinceLastLog = new LongAdder();
+    private final AtomicLong lastLogNanos = new AtomicLong(System.nanoTime() - LOG_INTERVAL_NANOS);
+
+    public AuthEntryPointJwt(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Handles unauthorized access by returning a structured JSON error response.
+     */
+    @Override
+    public void commence(HttpServletRequest request,
+                         HttpServletResponse response,
+                         AuthenticationException authException) throws IOException {
+
+        record(request, authException);
+
+        byte[] prefix = prefix(authException.getMessage());
+        byte[] path = JsonStringEncoder.getInstance().quoteAsUTF8(request.getServletPath());
+        byte[] timestamp = LocalDateTime.now().toString().getBytes(StandardCharsets.US_ASCII);
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentLength(prefix.length + PATH_OPEN.length + path.length
+                + TIMESTAMP_OPEN.length + timestamp.length + BODY_CLOSE.length);
+
+        ServletOutputStream out = response.getOutputStream();
+        out.write(prefix);
+        out.write(PATH_OPEN);
+        out.write(path);
+        out.write(TIMESTAMP_OPEN);
+        out.write(timestamp);
+        out.write(BODY_CLOSE);
+    }
+
+    /**
+     * Count every hit, but log at most one summary line per interval.
+     */
+    private void record(HttpServletRequest request, AuthenticationException authException) {
+        counters.computeIfAbsent(authException.getClass(),
+                type -> meterRegistry.counter("auth.unauthorized", "exception", type.getSimpleName()))
+                .increment();
+        sinceLastLog.increment();
+
+        long now = System.nanoTime();
+        long last = lastLogNanos.get();
+        if (now - last >= LOG_INTERVAL_NANOS && lastLogNanos.compareAndSet(last, now)) {
+            log.warn("Unauthorized error: {} request(s) in the last {} s, latest: {} - Path: {}",
+                    sinceLastLog.sumThenReset(), TimeUnit.NANOSECONDS.toSeconds(now - last),
+                    authException.getMessage(), request.getServletPath());
+        }
+    }
+
+    private byte[] prefix(String message) {
+        if (message == null) {
+            return buildPrefix(null);
+        }
+        byte[] prefix = prefixes.get(message);
+        if (prefix == null) {
+            prefix = buildPrefix(message);
+            if (prefixes.size() < MAX_CACHED_PREFIXES) {
+                prefixes.putIfAbsent(message, prefix);
+            }
+        }
+        return prefix;
+    }
+
+    private byte[] buildPrefix(String message) {
+        try {
+            String json = "{\"status\":" + HttpServletResponse.SC_UNAUTHORIZED
+                    + ",\"error\":\"Unauthorized\""
+                    + ",\"message\":" + objectMapper.writeValueAsString(message);
+            return json.getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
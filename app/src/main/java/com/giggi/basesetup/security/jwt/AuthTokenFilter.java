@@ -1,5 +1,6 @@
 package com.giggi.basesetup.security.jwt;
 
+import com.giggi.tokenverifier.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,7 +24,10 @@ import java.io.IOException;
 @Slf4j
 public class AuthTokenFilter extends OncePerRequestFilter {
 
+    private static final String ME_PATH = "/api/auth/me";
+
     private final JwtUtils jwtUtils;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     /**
      * Filter method that extracts and validates JWT tokens from requests.
@@ -38,24 +42,29 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
 
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            VerifiedToken token = jwt != null ? jwtUtils.verify(jwt).orElse(null) : null;
+
+            if (token != null) {
+                // Parsed once; the principal and authorities are derived from the same token
+                JwtPrincipal principal = new JwtPrincipal(
+                        token.getSubject(),
+                        token.getUserId(),
+                        jwtUtils.getRoleMask(token));
 
-                // Create authentication token with authorities from JWT
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                username,
+                        UsernamePasswordAuthenticationToken.authenticated(
+                                principal,
                                 null,
-                                jwtUtils.getAuthoritiesFromJwtToken(jwt)
+                                jwtUtils.getAuthorities(token)
                         );
 
                 // Set additional authentication details
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authentication.setDetails(detailsSource.buildDetails(request));
 
                 // Set authentication in SecurityContext
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                log.debug("Set authentication for user: {}", username);
+                log.debug("Set authentication for user: {}", principal.username());
             }
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
@@ -85,8 +94,8 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
 
-        // Skip JWT filter for public endpoints
-        return path.startsWith("/api/auth/") ||
+        // Skip JWT filter for public endpoints; /api/auth/me needs the caller's token
+        return (path.startsWith("/api/auth/") && !path.equals(ME_PATH)) ||
                 path.startsWith("/swagger-ui/") ||
                 path.startsWith("/v3/api-docs") ||
                 path.equals("/actuator/health");
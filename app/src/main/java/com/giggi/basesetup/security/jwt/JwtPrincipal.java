@@ -0,0 +1,26 @@
+package com.giggi.basesetup.security.jwt;
+
+import com.giggi.basesetup.entity.RoleName;
+import com.giggi.basesetup.security.RoleAuthorities;
+
+import java.security.Principal;
+
+/**
+ * Principal of a JWT-authenticated request: just what the token carries, immutable,
+ * with constant-time role checks.
+ */
+public record JwtPrincipal(String username, Long id, int roleMask) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean hasRole(RoleName role) {
+        return RoleAuthorities.hasRole(roleMask, role);
+    }
+}
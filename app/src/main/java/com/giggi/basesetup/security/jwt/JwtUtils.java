@@ -0,0 +1,170 @@
+package com.giggi.basesetup.security.jwt;
+
+import com.giggi.basesetup.entity.RoleName;
+import com.giggi.basesetup.security.RoleAuthorities;
+import com.giggi.basesetup.security.service.UserDetailsImpl;
+import com.giggi.tokenverifier.TokenVerificationException;
+import com.giggi.tokenverifier.TokenVerifier;
+import com.giggi.tokenverifier.VerifiedToken;
+import com.giggi.tokenverifier.VerifierConfig;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Utility class for JWT token operations including generation, validation and parsing.
+ */
+@Component
+@Slf4j
+public class JwtUtils {
+
+    // Claims of the compact format; both formats are accepted by TokenVerifier
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "r";
+
+    @Value("${spring.app.jwtSecret}")
+    private String jwtSecret;
+
+    @Getter
+    @Value("${spring.app.jwtExpirationMs}")
+    private int jwtExpirationMs;
+
+    @Value("${spring.app.jwtCompactTokens:false}")
+    private boolean jwtCompactTokens;
+
+    // Verified tokens kept until they expire; 0 verifies every request
+    @Value("${spring.app.jwtCacheSize:10000}")
+    private int jwtCacheSize;
+
+    // Decoding the key and building the parser per call showed up in allocation profiles;
+    // both are immutable and thread-safe, so they are built once
+    private SecretKey signingKey;
+    private TokenVerifier tokenVerifier;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        // Same parsing as downstream services: both token formats, roles by RoleName order
+        this.tokenVerifier = new TokenVerifier(VerifierConfig.builder()
+                .trustedKey("primary", signingKey)
+                .roleNames(Arrays.stream(RoleName.values()).map(RoleName::getCode).toArray(String[]::new))
+                .cacheSize(jwtCacheSize)
+                .clockSkew(Duration.ZERO)
+                .build());
+    }
+
+    /**
+     * Generate JWT token from Authentication object.
+     */
+    public String generateJwtToken(Authentication authentication) {
+        return generateTokenFromUser((UserDetailsImpl) authentication.getPrincipal());
+    }
+
+    /**
+     * Generate JWT token from UserDetailsImpl.
+     * <p>
+     * In compact mode the token carries only subject, id, role mask and expiry;
+     * profile fields are served by {@code /api/auth/me}. Users holding roles outside
+     * {@link RoleName} still get the full format, since the mask cannot express them.
+     */
+    public String generateTokenFromUser(UserDetailsImpl userDetails) {
+        Date expiration = new Date(System.currentTimeMillis() + jwtExpirationMs);
+        if (jwtCompactTokens && Integer.bitCount(userDetails.getRoleMask()) == userDetails.getAuthorities().size()) {
+            return Jwts.builder()
+                    .subject(userDetails.getUsername())
+                    .claim(USER_ID_CLAIM, userDetails.getId())
+                    .claim(ROLES_CLAIM, userDetails.getRoleMask())
+                    .expiration(expiration)
+                    .signWith(signingKey)
+                    .compact();
+        }
+
+        return Jwts.builder()
+                .subject(userDetails.getUsername())
+                .claim("id", userDetails.getId())
+                .claim("email", userDetails.getEmail())
+                .claim("firstName", userDetails.getFirstName())
+                .claim("lastName", userDetails.getLastName())
+                .claim("authorities", userDetails.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toList()))
+                .issuedAt(new Date())
+                .expiration(expiration)
+                .signWith(signingKey)
+                .compact();
+    }
+
+    /**
+     * Extract JWT token from HTTP request header.
+     */
+    public String getJwtFromHeader(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        log.debug("Authorization Header: {}", bearerToken);
+
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+
+    /**
+     * Verify and parse a token once.
+     *
+     * @return the verified token, empty when the token is invalid or expired
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        try {
+            return Optional.of(tokenVerifier.verify(token));
+        } catch (TokenVerificationException e) {
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Role mask of a verified token, in either token format; see {@link RoleAuthorities}.
+     */
+    public int getRoleMask(VerifiedToken token) {
+        return RoleAuthorities.maskOf(token.getRoles());
+    }
+
+    /**
+     * Authorities of a verified token. Known roles come back as the shared canonical
+     * list, so nothing is allocated per request.
+     */
+    public List<GrantedAuthority> getAuthorities(VerifiedToken token) {
+        Set<String> names = token.getRoles();
+        int mask = RoleAuthorities.maskOf(names);
+        if (Integer.bitCount(mask) == names.size()) {
+            return RoleAuthorities.forMask(mask);
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(names.size());
+        for (String name : names) {
+            RoleName role = RoleName.fromCode(name);
+            authorities.add(role != null ? RoleAuthorities.of(role) : new SimpleGrantedAuthority(name));
+        }
+        return authorities;
+    }
+
+    /**
+     * Validate JWT token.
+     */
+    public boolean validateJwtToken(String authToken) {
+        return verify(authToken).isPresent();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.giggi.basesetup.security.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows observed latency, after the gradient algorithm of
+ * Netflix concurrency-limits with an AIMD back-off on drops:
+ * <ul>
+ *     <li>a short (about 10 samples) and a long (about 500 samples) moving average of
+ *     request latency are kept per {@link RequestPriority}, and a sample is compared
+ *     with its own class only, so bcrypt logins mixed with fast reads do not look like
+ *     overload</li>
+ *     <li>while the short average stays within {@code tolerance} times the long one
+ *     the limit grows by about sqrt(limit) per sample; when latency rises above it the
+ *     limit shrinks in proportion, by at most half</li>
+ *     <li>a dropped request (a sign of overload, not any error) multiplies the limit by
+ *     {@code backoffRatio}</li>
+ *     <li>the limit does not grow while less than half of it is in use</li>
+ * </ul>
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_WEIGHT = 1.0 / 10;
+    private static final double LONG_WEIGHT = 1.0 / 500;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Guarded by this; limit is also read without the lock for admission
+    private volatile double limit;
+    private final double[] shortRtt = new double[RequestPriority.values().length];
+    private final double[] longRtt = new double[RequestPriority.values().length];
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Take a slot if the priority's share of the limit is not full.
+     *
+     * @return false when the request must be rejected; otherwise {@link #release} must follow
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.getShare()));
+        if (inFlight.incrementAndGet() > allowed) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Give the slot back and feed the latency of the request into the limit.
+     *
+     * @param dropped the request failed because the server is overloaded; its latency is not sampled
+     */
+    public void release(RequestPriority priority, long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        update(priority.ordinal(), rttNanos, dropped, inFlightAtCompletion);
+    }
+
+    private synchronized void update(int priority, long rttNanos, boolean dropped, int inFlightAtCompletion) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+
+        if (longRtt[priority] == 0) {
+            shortRtt[priority] = rttNanos;
+            longRtt[priority] = rttNanos;
+        } else {
+            shortRtt[priority] += (rttNanos - shortRtt[priority]) * SHORT_WEIGHT;
+            longRtt[priority] += (rttNanos - longRtt[priority]) * LONG_WEIGHT;
+        }
+        // After a long slowdown the long average lags behind; let it catch up on recovery
+        if (longRtt[priority] / shortRtt[priority] > 2) {
+            longRtt[priority] *= 0.95;
+        }
+
+        if (inFlightAtCompletion < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.clamp(tolerance * longRtt[priority] / shortRtt[priority], 0.5, 1.0);
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.clamp(limit * (1 - SMOOTHING) + target * SMOOTHING, minLimit, maxLimit);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,127 @@
+package com.giggi.basesetup.security.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Bounds the requests in progress with an {@link AdaptiveConcurrencyLimit}, ahead of
+ * authentication. When MySQL slows down, latency rises, the limit shrinks and the
+ * excess is refused at once with 503 and {@code Retry-After}, before it can take a
+ * Tomcat thread for long, a Hikari connection or a bcrypt round. Lower
+ * {@link RequestPriority} classes are refused first.
+ * <p>
+ * Only overload counts as a drop: no connection within the pool timeout, a statement
+ * timeout or an async request timeout. Other errors, such as a 500 from a bug or a
+ * 502 from a downstream call, are ordinary latency samples.
+ * <p>
+ * The SSE stream is not limited: it holds no thread or connection while idle and
+ * has its own subscriber cap. Metrics: {@code http.concurrency.limit},
+ * {@code http.concurrency.inflight} and {@code http.concurrency.rejected} by priority.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String STREAM_PATH = "/api/utenti/stream";
+    private static final int MAX_CAUSE_DEPTH = 16;
+    private static final byte[] BUSY_BODY = "{\"message\":\"Server busy, retry later\",\"success\":false}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+    private final AdaptiveConcurrencyLimit limit;
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${spring.app.concurrency.enabled:true}") boolean enabled,
+                                  @Value("${spring.app.concurrency.initialLimit:100}") int initialLimit,
+                                  @Value("${spring.app.concurrency.minLimit:10}") int minLimit,
+                                  @Value("${spring.app.concurrency.maxLimit:200}") int maxLimit,
+                                  @Value("${spring.app.concurrency.latencyTolerance:2.0}") double latencyTolerance,
+                                  @Value("${spring.app.concurrency.backoffRatio:0.9}") double backoffRatio,
+                                  @Value("${spring.app.concurrency.retryAfterSeconds:1}") int retryAfterSeconds) {
+        this.enabled = enabled;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, latencyTolerance, backoffRatio);
+
+        Gauge.builder("http.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit).register(meterRegistry);
+        Gauge.builder("http.concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInFlight).register(meterRegistry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejected.put(priority, meterRegistry.counter("http.concurrency.rejected", "priority", priority.name()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || STREAM_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestPriority priority = RequestPriority.of(request);
+        if (!limit.tryAcquire(priority)) {
+            rejected.get(priority).increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(BUSY_BODY.length);
+            response.getOutputStream().write(BUSY_BODY);
+            return;
+        }
+
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (failure == null) {
+                // Exceptions turned into a response by an exception resolver
+                failure = (Throwable) request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+            }
+            limit.release(priority, System.nanoTime() - start, isOverload(failure));
+        }
+    }
+
+    /**
+     * Whether the failure, or any of its causes, shows the server or the database is saturated.
+     */
+    static boolean isOverload(Throwable failure) {
+        Throwable cause = failure;
+        for (int depth = 0; cause != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (cause instanceof CannotGetJdbcConnectionException
+                    || cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLTimeoutException
+                    || cause instanceof QueryTimeoutException
+                    || cause instanceof AsyncRequestTimeoutException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,41 @@
+package com.giggi.basesetup.security.limit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Getter;
+
+/**
+ * Admission classes of the concurrency limiter. Each class may fill only its share
+ * of the current limit, so as the limit shrinks the lower classes are shed first.
+ */
+@Getter
+public enum RequestPriority {
+    // Health checks and token validation by other services
+    CRITICAL(1.0),
+    // Sign-in and sign-up
+    LOGIN(0.9),
+    DEFAULT(0.8),
+    // Full listings and admin tooling, the most expensive and the least urgent
+    ADMIN_LISTING(0.5);
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    public static RequestPriority of(HttpServletRequest request) {
+        String path = request.getServletPath();
+        String method = request.getMethod();
+        if (path.startsWith("/actuator/health") || ("POST".equals(method) && path.equals("/api/auth/validate"))) {
+            return CRITICAL;
+        }
+        if ("POST".equals(method) && (path.equals("/api/auth/signin") || path.equals("/api/auth/signup"))) {
+            return LOGIN;
+        }
+        if (("GET".equals(method) && path.equals("/api/utenti"))
+                || path.startsWith("/api/audit") || path.startsWith("/api/utenti/bulk/")) {
+            return ADMIN_LISTING;
+        }
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,81 @@
+package com.giggi.basesetup.security.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader on
+ * its own thread, callers arriving while it runs wait for the same result instead
+ * of repeating the query. Nothing is cached; the key is released as soon as the
+ * load ends. A caller that waits longer than the timeout gives up and loads directly.
+ * <p>
+ * Metrics: {@code singleflight.calls} tagged {@code outcome=leader|coalesced|timeout}
+ * and the {@code singleflight.inflight} gauge, both tagged with the flight name.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter timeouts;
+
+    public SingleFlight(String name, Duration timeout, MeterRegistry meterRegistry) {
+        this.timeoutNanos = timeout.toNanos();
+        this.leaders = meterRegistry.counter("singleflight.calls", "name", name, "outcome", "leader");
+        this.coalesced = meterRegistry.counter("singleflight.calls", "name", name, "outcome", "coalesced");
+        this.timeouts = meterRegistry.counter("singleflight.calls", "name", name, "outcome", "timeout");
+        Gauge.builder("singleflight.inflight", inFlight, Map::size).tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Value for the key, loaded once per group of concurrent callers. A failure of the
+     * shared load is rethrown to every caller of the group.
+     */
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running == null) {
+            leaders.increment();
+            try {
+                V value = loader.get();
+                flight.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+
+        coalesced.increment();
+        try {
+            return running.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared load", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
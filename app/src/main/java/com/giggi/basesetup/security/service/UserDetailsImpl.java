@@ -0,0 +1,202 @@
+package com.giggi.basesetup.security.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.giggi.basesetup.entity.Role;
+import com.giggi.basesetup.entity.RoleName;
+import com.giggi.basesetup.entity.Utente;
+import com.giggi.basesetup.security.RoleAuthorities;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Custom UserDetails implementation that wraps the User entity
+ * and provides Spring Security with user authentication information.
+ * <p>
+ * Immutable, so one instance can be shared between threads. Known roles are kept
+ * as a {@link RoleName} bitmask backed by the canonical authority lists of
+ * {@link RoleAuthorities}.
+ */
+@Getter
+public class UserDetailsImpl implements UserDetails {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+
+    @JsonIgnore
+    private final String password;
+
+    private final boolean enabled;
+    private final boolean accountNonExpired;
+    private final boolean accountNonLocked;
+    private final boolean credentialsNonExpired;
+
+    @JsonIgnore
+    private final int roleMask;
+
+    private final List<GrantedAuthority> authorities;
+
+    public UserDetailsImpl(Long id, String username, String email, String firstName, String lastName,
+                           String password, boolean enabled, boolean accountNonExpired, boolean accountNonLocked,
+                           boolean credentialsNonExpired, int roleMask, List<GrantedAuthority> authorities) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.password = password;
+        this.enabled = enabled;
+        this.accountNonExpired = accountNonExpired;
+        this.accountNonLocked = accountNonLocked;
+        this.credentialsNonExpired = credentialsNonExpired;
+        this.roleMask = roleMask;
+        this.authorities = authorities;
+    }
+
+    /**
+     * Factory method to create UserDetailsImpl from User entity.
+     */
+    public static UserDetailsImpl build(Utente user) {
+        int mask = 0;
+        boolean onlyKnownRoles = true;
+        for (Role role : user.getRoles()) {
+            RoleName roleName = RoleName.fromCode(role.getName());
+            if (roleName != null) {
+                mask |= roleName.mask();
+            } else {
+                onlyKnownRoles = false;
+            }
+        }
+
+        return new UserDetailsImpl(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getPassword(),
+                user.getEnabled(),
+                user.getAccountNonExpired(),
+                user.getAccountNonLocked(),
+                user.getCredentialsNonExpired(),
+                mask,
+                onlyKnownRoles ? RoleAuthorities.forMask(mask) : customAuthorities(user, mask));
+    }
+
+    /**
+     * Roles stored in the database but missing from {@link RoleName}: canonical
+     * instances for the known ones plus one new authority per unknown name.
+     */
+    private static List<GrantedAuthority> customAuthorities(Utente user, int mask) {
+        List<GrantedAuthority> authorities = new ArrayList<>(RoleAuthorities.forMask(mask));
+        for (Role role : user.getRoles()) {
+            if (RoleName.fromCode(role.getName()) == null) {
+                authorities.add(new SimpleGrantedAuthority(role.getName()));
+            }
+        }
+        return List.copyOf(authorities);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return accountNonExpired;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return credentialsNonExpired;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get full name of the user.
+     */
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+
+    /**
+     * Check if user has a specific role.
+     */
+    public boolean hasRole(RoleName role) {
+        return RoleAuthorities.hasRole(roleMask, role);
+    }
+
+    /**
+     * Check if user has a specific role by name; constant time for {@link RoleName} values.
+     */
+    public boolean hasRole(String roleName) {
+        RoleName role = RoleName.fromCode(roleName);
+        if (role != null) {
+            return hasRole(role);
+        }
+        for (GrantedAuthority authority : authorities) {
+            if (authority.getAuthority().equals(roleName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if user has any of the specified roles.
+     */
+    public boolean hasAnyRole(String... roleNames) {
+        for (String roleName : roleNames) {
+            if (hasRole(roleName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof UserDetailsImpl other && Objects.equals(username, other.username));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(username);
+    }
+
+    @Override
+    public String toString() {
+        return "UserDetailsImpl(id=" + id + ", username=" + username + ", roleMask=" + roleMask + ")";
+    }
+}
@@ -1,5 +1,8 @@
 package com.giggi.basesetup.security.service;
 
+import com.giggi.basesetup.datasource.ReadYourWrites;
+import com.giggi.basesetup.datasource.Workload;
+import com.giggi.basesetup.datasource.WorkloadType;
 import com.giggi.basesetup.entity.Utente;
 import com.giggi.basesetup.repository.UtenteRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,33 +20,43 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Workload(WorkloadType.AUTH)
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UtenteRepository userRepository;
+    private final UserLoader userLoader;
 
     /**
      * Load user by username for authentication.
-     * Supports both username and email as login identifiers.
+     * Supports both username and email as login identifiers. Concurrent logins
+     * of the same name share one query, see {@link UserLoader}; not transactional,
+     * so a login waiting for another one's query holds no connection.
      */
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
         log.debug("Loading user by username or email: {}", usernameOrEmail);
 
-        Utente user = userRepository.findByUsernameOrEmail(usernameOrEmail)
-                .orElseThrow(() -> {
-                    log.warn("User not found with username or email: {}", usernameOrEmail);
-                    return new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail);
-                });
+        // Login is anonymous: match read-your-writes on the name being loaded
+        String previousSubject = ReadYourWrites.bindSubject(usernameOrEmail);
+        UserDetailsImpl user;
+        try {
+            user = userLoader.findByUsernameOrEmail(usernameOrEmail);
+        } finally {
+            ReadYourWrites.restoreSubject(previousSubject);
+        }
+        if (user == null) {
+            log.warn("User not found with username or email: {}", usernameOrEmail);
+            throw new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail);
+        }
 
-        log.debug("User found: {}, enabled: {}", user.getUsername(), user.getEnabled());
+        log.debug("User found: {}, enabled: {}", user.getUsername(), user.isEnabled());
 
-        if (!user.getEnabled()) {
+        if (!user.isEnabled()) {
             log.warn("User account is disabled: {}", user.getUsername());
             throw new UsernameNotFoundException("User account is disabled: " + user.getUsername());
         }
 
-        return UserDetailsImpl.build(user);
+        return user;
     }
 
     /**
@@ -0,0 +1,61 @@
+package com.giggi.basesetup.security.service;
+
+import com.giggi.basesetup.repository.UtenteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * User lookups of the login and refresh paths. After a deploy many clients sign in
+ * or refresh as the same users at once; concurrent lookups of the same name share
+ * one query through {@link SingleFlight} and receive the same immutable
+ * {@link UserDetailsImpl}.
+ * <p>
+ * Coalescing happens before the transaction boundary: only the caller that runs
+ * the query opens a (read-only) transaction, so the ones waiting for it hold no
+ * connection. Callers must not be transactional themselves, or they would hold
+ * theirs while waiting.
+ */
+@Component
+public class UserLoader {
+
+    private final UtenteRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SingleFlight<String, UserDetailsImpl> byUsernameOrEmail;
+    private final SingleFlight<String, UserDetailsImpl> byUsername;
+
+    public UserLoader(UtenteRepository userRepository,
+                      PlatformTransactionManager transactionManager,
+                      MeterRegistry meterRegistry,
+                      @Value("${spring.app.singleFlight.timeoutMs:2000}") long timeoutMs) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.byUsernameOrEmail = new SingleFlight<>("user.login", Duration.ofMillis(timeoutMs), meterRegistry);
+        this.byUsername = new SingleFlight<>("user.refresh", Duration.ofMillis(timeoutMs), meterRegistry);
+    }
+
+    /**
+     * @return the user, or null when no user has this username or email
+     */
+    public UserDetailsImpl findByUsernameOrEmail(String usernameOrEmail) {
+        return byUsernameOrEmail.load(usernameOrEmail, () -> transactionTemplate.execute(status ->
+                userRepository.findByUsernameOrEmail(usernameOrEmail)
+                        .map(UserDetailsImpl::build)
+                        .orElse(null)));
+    }
+
+    /**
+     * @return the user, or null when no user has this username
+     */
+    public UserDetailsImpl findByUsername(String username) {
+        return byUsername.load(username, () -> transactionTemplate.execute(status ->
+                userRepository.findByUsername(username)
+                        .map(UserDetailsImpl::build)
+                        .orElse(null)));
+    }
+}
@@ -0,0 +1,10 @@
+package com.giggi.basesetup.service;
+
+import com.giggi.basesetup.entity.AuditEventType;
+import com.giggi.basesetup.entity.AuditLog;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface AuditLogService {
+    Page<AuditLog> search(AuditEventType type, String principal, Pageable pageable);
+}
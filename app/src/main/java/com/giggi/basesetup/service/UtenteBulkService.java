@@ -0,0 +1,13 @@
+package com.giggi.basesetup.service;
+
+import com.giggi.basesetup.dto.request.utente.UtenteBulkRequestDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteBulkResultDTO;
+import com.giggi.basesetup.entity.RoleName;
+
+public interface UtenteBulkService {
+    UtenteBulkResultDTO disable(UtenteBulkRequestDTO request);
+
+    UtenteBulkResultDTO delete(UtenteBulkRequestDTO request);
+
+    UtenteBulkResultDTO grantRole(UtenteBulkRequestDTO request, RoleName role);
+}
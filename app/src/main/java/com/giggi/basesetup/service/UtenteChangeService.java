@@ -0,0 +1,16 @@
+package com.giggi.basesetup.service;
+
+import com.giggi.basesetup.dto.response.utente.UtenteChangesDTO;
+import com.giggi.basesetup.entity.UtenteChangeType;
+
+import java.util.List;
+
+public interface UtenteChangeService {
+    void record(Long utenteId, UtenteChangeType type);
+
+    void recordAll(List<Long> utenteIds, UtenteChangeType type);
+
+    UtenteChangesDTO changesSince(long cursor, int limit);
+
+    long latestCursor();
+}
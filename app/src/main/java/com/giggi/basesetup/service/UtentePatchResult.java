@@ -0,0 +1,8 @@
+package com.giggi.basesetup.service;
+
+public enum UtentePatchResult {
+    UPDATED,
+    NOT_FOUND,
+    // The row changed since the version the client sent
+    CONFLICT
+}
@@ -0,0 +1,48 @@
+package com.giggi.basesetup.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.giggi.basesetup.entity.Utente;
+import com.giggi.basesetup.repository.UtentePatch;
+import com.giggi.basesetup.repository.projection.UtenteAvatar;
+import com.giggi.basesetup.repository.projection.UtenteField;
+import com.giggi.basesetup.repository.projection.UtenteFieldsRow;
+import com.giggi.basesetup.repository.projection.UtentiFingerprint;
+import com.giggi.basesetup.search.SearchMode;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface UtenteService {
+    Utente save(Utente utente);
+
+    Utente update(Utente utente);
+
+    UtentePatchResult patch(Long id, long expectedVersion, UtentePatch patch);
+
+    void deleteById(Long id);
+
+    List<Utente> findAll();
+
+    Page<Utente> findAll(Pageable pageable);
+
+    Utente findById(Long id);
+
+    Map<Long, Utente> findAllByIds(List<Long> ids);
+
+    Optional<Long> findVersionById(Long id);
+
+    Optional<UtenteFieldsRow> findFieldsById(Long id, Set<UtenteField> fields);
+
+    List<UtenteFieldsRow> findFields(Set<UtenteField> fields, Pageable pageable);
+
+    UtentiFingerprint fingerprint();
+
+    Page<Utente> search(String query, SearchMode mode, Pageable pageable);
+
+    Optional<UtenteAvatar> findAvatar(Long id);
+
+    boolean updateAvatar(Long id, String hash, String contentType, long size);
+}
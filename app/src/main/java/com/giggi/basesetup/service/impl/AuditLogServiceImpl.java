@@ -0,0 +1,27 @@
+package com.giggi.basesetup.service.impl;
+
+import com.giggi.basesetup.datasource.Workload;
+import com.giggi.basesetup.datasource.WorkloadType;
+import com.giggi.basesetup.entity.AuditEventType;
+import com.giggi.basesetup.entity.AuditLog;
+import com.giggi.basesetup.repository.AuditLogRepository;
+import com.giggi.basesetup.service.AuditLogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Workload(WorkloadType.ADMIN)
+public class AuditLogServiceImpl implements AuditLogService {
+
+    private final AuditLogRepository auditLogRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AuditLog> search(AuditEventType type, String principal, Pageable pageable) {
+        return auditLogRepository.search(type, principal, pageable);
+    }
+}
@@ -1,17 +1,26 @@
 package com.giggi.basesetup.service.impl;
 
+import com.giggi.basesetup.audit.AuditLogger;
+import com.giggi.basesetup.datasource.ReadYourWrites;
+import com.giggi.basesetup.datasource.Workload;
+import com.giggi.basesetup.datasource.WorkloadType;
 import com.giggi.basesetup.dto.request.auth.LoginRequest;
 import com.giggi.basesetup.dto.request.auth.RegisterRequest;
 import com.giggi.basesetup.dto.response.MessageResponse;
+import com.giggi.basesetup.dto.response.auth.UserProfileResponse;
 import com.giggi.basesetup.dto.response.jwt.JwtResponse;
+import com.giggi.basesetup.entity.AuditEventType;
 import com.giggi.basesetup.entity.Role;
 import com.giggi.basesetup.entity.RoleName;
 import com.giggi.basesetup.entity.Utente;
+import com.giggi.basesetup.entity.UtenteChangeType;
 import com.giggi.basesetup.mapper.UtenteMapper;
 import com.giggi.basesetup.repository.RoleRepository;
 import com.giggi.basesetup.repository.UtenteRepository;
 import com.giggi.basesetup.security.jwt.JwtUtils;
 import com.giggi.basesetup.security.service.UserDetailsImpl;
+import com.giggi.basesetup.security.service.UserLoader;
+import com.giggi.basesetup.service.UtenteChangeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,6 +34,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -34,6 +44,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Workload(WorkloadType.AUTH)
 public class AuthServiceImpl {
 
     private final AuthenticationManager authenticationManager;
@@ -42,11 +53,16 @@ public class AuthServiceImpl {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
     private final UtenteMapper userMapper;
+    private final UtenteChangeService utenteChangeService;
+    private final ReadYourWrites readYourWrites;
+    private final AuditLogger auditLogger;
+    private final UserLoader userLoader;
 
     /**
-     * Authenticate user and generate JWT token.
+     * Authenticate user and generate JWT token. Not transactional: the lookup runs in
+     * its own short transaction (see {@link UserLoader}), so no connection is held
+     * while the password hash is checked.
      */
-    @Transactional(readOnly = true)
     public JwtResponse authenticateUser(LoginRequest loginRequest) {
         log.info("Authenticating user: {}", loginRequest.getUsernameOrEmail());
 
@@ -136,6 +152,9 @@ public class AuthServiceImpl {
         user.setAccountNonLocked(true);
         user.setCredentialsNonExpired(true);
         userRepository.save(user);
+        utenteChangeService.record(user.getId(), UtenteChangeType.CREATED);
+        // The first login usually follows right away, keep it off a lagging replica
+        readYourWrites.markWritten(user.getUsername(), user.getEmail());
 
         log.info("User registered successfully: {}", user.getUsername());
         return MessageResponse.success("User registered successfully!");
@@ -158,17 +177,20 @@ public class AuthServiceImpl {
     }
 
     /**
-     * Refresh JWT token.
+     * Refresh JWT token. Not transactional, like {@link #authenticateUser}.
      */
-    @Transactional(readOnly = true)
     public JwtResponse refreshToken(String username) {
         log.info("Refreshing token for user: {}", username);
 
-        Utente user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        // Shared with concurrent refreshes of the same user
+        UserDetailsImpl userDetails = userLoader.findByUsername(username);
+        if (userDetails == null) {
+            auditLogger.log(AuditEventType.TOKEN_REFRESH, false, username, "User not found");
+            throw new RuntimeException("User not found: " + username);
+        }
 
-        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
         String jwt = jwtUtils.generateTokenFromUser(userDetails);
+        auditLogger.log(AuditEventType.TOKEN_REFRESH, true, username, null);
 
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
@@ -184,6 +206,29 @@ public class AuthServiceImpl {
                 jwtUtils.getJwtExpirationMs());
     }
 
+    /**
+     * Current row version of a user, for the profile ETag.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findProfileVersion(Long id) {
+        return userRepository.findVersionById(id);
+    }
+
+    /**
+     * Profile fields that compact tokens no longer carry.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserProfileResponse> getProfile(Long id) {
+        return userRepository.findById(id)
+                .map(user -> new UserProfileResponse(
+                        user.getId(),
+                        user.getUsername(),
+                        user.getEmail(),
+                        user.getFirstName(),
+                        user.getLastName(),
+                        user.getRoles().stream().map(Role::getName).sorted().toList(),
+                        user.getVersion()));
+    }
 
     public boolean validateToken(String token) {
         return jwtUtils.validateJwtToken(token);
@@ -0,0 +1,174 @@
+package com.giggi.basesetup.service.impl;
+
+import com.giggi.basesetup.datasource.Workload;
+import com.giggi.basesetup.datasource.WorkloadType;
+import com.giggi.basesetup.dto.request.utente.UtenteBulkRequestDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteBulkChunkDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteBulkResultDTO;
+import com.giggi.basesetup.entity.Role;
+import com.giggi.basesetup.entity.RoleName;
+import com.giggi.basesetup.entity.UtenteChangeType;
+import com.giggi.basesetup.repository.RoleRepository;
+import com.giggi.basesetup.repository.UtenteBulkFilter;
+import com.giggi.basesetup.repository.UtenteRepository;
+import com.giggi.basesetup.service.UtenteBulkService;
+import com.giggi.basesetup.service.UtenteChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Set-based bulk operations on users. Targets are processed in chunks of
+ * {@code spring.app.bulk.chunkSize} ids, ascending, each chunk in its own bounded
+ * transaction: lock the rows the operation changes, apply one statement to all of
+ * them, record the changes (written with one batched insert at commit). Ascending
+ * ids keep the lock order stable across concurrent bulk runs, and the timeout of
+ * {@code spring.app.bulk.chunkTimeoutSeconds} bounds how long a chunk holds its locks.
+ * <p>
+ * Change-log events refresh everything derived from users (search index, outbox,
+ * SSE stream); the version bump changes their ETags.
+ */
+@Service
+@Slf4j
+@Workload(WorkloadType.ADMIN)
+public class UtenteBulkServiceImpl implements UtenteBulkService {
+
+    private final UtenteRepository utenteRepository;
+    private final RoleRepository roleRepository;
+    private final UtenteChangeService utenteChangeService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxUsers;
+
+    public UtenteBulkServiceImpl(UtenteRepository utenteRepository,
+                                 RoleRepository roleRepository,
+                                 UtenteChangeService utenteChangeService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${spring.app.bulk.chunkSize:500}") int chunkSize,
+                                 @Value("${spring.app.bulk.maxUsers:100000}") int maxUsers,
+                                 @Value("${spring.app.bulk.chunkTimeoutSeconds:10}") int chunkTimeoutSeconds) {
+        this.utenteRepository = utenteRepository;
+        this.roleRepository = roleRepository;
+        this.utenteChangeService = utenteChangeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout(chunkTimeoutSeconds);
+        this.chunkSize = chunkSize;
+        this.maxUsers = maxUsers;
+    }
+
+    @Override
+    public UtenteBulkResultDTO disable(UtenteBulkRequestDTO request) {
+        return run("disable", request, ids -> {
+            List<Long> locked = utenteRepository.lockEnabled(ids);
+            if (!locked.isEmpty()) {
+                utenteRepository.disableAll(locked, LocalDateTime.now());
+                utenteChangeService.recordAll(locked, UtenteChangeType.UPDATED);
+            }
+            return locked.size();
+        });
+    }
+
+    @Override
+    public UtenteBulkResultDTO delete(UtenteBulkRequestDTO request) {
+        return run("delete", request, ids -> {
+            List<Long> locked = utenteRepository.lockExisting(ids);
+            if (!locked.isEmpty()) {
+                utenteRepository.deleteRolesOfAll(locked);
+                utenteRepository.deleteAllByIds(locked);
+                // Tombstones commit or roll back together with the delete
+                utenteChangeService.recordAll(locked, UtenteChangeType.DELETED);
+            }
+            return locked.size();
+        });
+    }
+
+    @Override
+    public UtenteBulkResultDTO grantRole(UtenteBulkRequestDTO request, RoleName roleName) {
+        Long roleId = roleRepository.findByName(roleName.getCode())
+                .map(Role::getId)
+                .orElseThrow(() -> new IllegalArgumentException("Role not found: " + roleName.getCode()));
+
+        return run("grant " + roleName.getCode(), request, ids -> {
+            List<Long> locked = utenteRepository.lockWithoutRole(ids, roleId);
+            if (!locked.isEmpty()) {
+                utenteRepository.grantRoleToAll(locked, roleId);
+                // Roles are part of the user representation, so its version moves too
+                utenteRepository.touchAll(locked, LocalDateTime.now());
+                utenteChangeService.recordAll(locked, UtenteChangeType.UPDATED);
+            }
+            return locked.size();
+        });
+    }
+
+    private UtenteBulkResultDTO run(String operation, UtenteBulkRequestDTO request, ToIntFunction<List<Long>> action) {
+        long start = System.nanoTime();
+        List<Long> explicitIds = request.getIds() == null ? null : request.getIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+        UtenteBulkFilter filter = request.toFilter();
+
+        List<UtenteBulkChunkDTO> progress = new ArrayList<>();
+        int candidates = 0;
+        int affected = 0;
+        long lastId = 0;
+        String error = null;
+
+        while (candidates < maxUsers) {
+            int limit = Math.min(chunkSize, maxUsers - candidates);
+            int offset = candidates;
+            long afterId = lastId;
+            long chunkStart = System.nanoTime();
+
+            ChunkOutcome outcome;
+            try {
+                outcome = transactionTemplate.execute(status -> {
+                    List<Long> ids = explicitIds != null
+                            ? explicitIds.subList(offset, Math.min(offset + limit, explicitIds.size()))
+                            : utenteRepository.findIdsAfter(afterId, filter, limit);
+                    if (ids.isEmpty()) {
+                        return null;
+                    }
+                    return new ChunkOutcome(ids.get(0), ids.get(ids.size() - 1), ids.size(), action.applyAsInt(ids));
+                });
+            } catch (RuntimeException e) {
+                error = e.getMessage();
+                log.error("Bulk {} stopped at chunk {} after {} user(s): {}", operation, progress.size() + 1, affected, e.getMessage());
+                break;
+            }
+            if (outcome == null) {
+                break;
+            }
+
+            candidates += outcome.candidates();
+            affected += outcome.affected();
+            lastId = outcome.lastId();
+            progress.add(new UtenteBulkChunkDTO(progress.size() + 1, outcome.firstId(), outcome.lastId(),
+                    outcome.candidates(), outcome.affected(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - chunkStart)));
+            log.info("Bulk {}: chunk {} committed, {}/{} user(s) changed, {} so far",
+                    operation, progress.size(), outcome.affected(), outcome.candidates(), affected);
+
+            if (outcome.candidates() < limit) {
+                break;
+            }
+        }
+
+        // Explicit id lists are capped by the controller; a filter may match more than one run handles
+        boolean hasMore = error == null && explicitIds == null && candidates >= maxUsers;
+        return new UtenteBulkResultDTO(operation, candidates, affected, error == null, hasMore, error,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), progress);
+    }
+
+    private record ChunkOutcome(long firstId, long lastId, int candidates, int affected) {
+    }
+}
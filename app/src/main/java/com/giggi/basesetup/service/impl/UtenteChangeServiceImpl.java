@@ -0,0 +1,246 @@
+package com.giggi.basesetup.service.impl;
+
+import com.giggi.basesetup.datasource.Workload;
+import com.giggi.basesetup.datasource.WorkloadType;
+import com.giggi.basesetup.dto.response.utente.UtenteChangeDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteChangesDTO;
+import com.giggi.basesetup.entity.Utente;
+import com.giggi.basesetup.entity.UtenteChange;
+import com.giggi.basesetup.entity.UtenteChangeType;
+import com.giggi.basesetup.event.UtenteChangedEvent;
+import com.giggi.basesetup.mapper.UtenteMapper;
+import com.giggi.basesetup.repository.UtenteChangeRepository;
+import com.giggi.basesetup.repository.UtenteRepository;
+import com.giggi.basesetup.service.UtenteChangeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Records user changes in the change log and serves them to delta-sync clients.
+ */
+@Service
+@RequiredArgsConstructor
+@Workload(WorkloadType.ADMIN)
+public class UtenteChangeServiceImpl implements UtenteChangeService {
+
+    private static final String INSERT_CHANGE_SQL =
+            "INSERT INTO utenti_changes (utente_id, change_type, changed_at) VALUES (?, ?, ?)";
+    private static final String LOCK_SQL = "UPDATE utenti_changes_lock SET commits = commits + 1 WHERE id = 1";
+
+    private final UtenteChangeRepository changeRepository;
+    private final UtenteRepository utenteRepository;
+    private final UtenteMapper utenteMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Append a change to the log when the current transaction commits.
+     */
+    @Override
+    @Transactional
+    public void record(Long utenteId, UtenteChangeType type) {
+        pendingChanges().add(new PendingChange(List.of(utenteId), type));
+    }
+
+    /**
+     * Append the same change for many users when the current transaction commits,
+     * with one event carrying the change-log id of each user.
+     */
+    @Override
+    @Transactional
+    public void recordAll(List<Long> utenteIds, UtenteChangeType type) {
+        if (!utenteIds.isEmpty()) {
+            pendingChanges().add(new PendingChange(List.copyOf(utenteIds), type));
+        }
+    }
+
+    private PendingChanges pendingChanges() {
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Insert the changes of the committing transaction and publish their events.
+     * <p>
+     * Cursors must become visible in increasing order, or a reader that already moved
+     * past a cursor skips a lower one committed later. So the rows are inserted last,
+     * after the caller's writes are flushed, under the lock row of
+     * {@code utenti_changes_lock}: the lock is held until commit, so the next writer
+     * gets its ids only after this transaction has committed. The lock covers just the
+     * inserts and the commit, not the transaction.
+     */
+    private void writeChanges(List<PendingChange> pending) {
+        entityManager.flush();
+        jdbcTemplate.update(LOCK_SQL);
+
+        List<Long> utenteIds = new ArrayList<>();
+        List<UtenteChangeType> types = new ArrayList<>();
+        for (PendingChange change : pending) {
+            utenteIds.addAll(change.utenteIds());
+            types.addAll(Collections.nCopies(change.utenteIds().size(), change.type()));
+        }
+        List<Long> cursors = insertChanges(utenteIds, types);
+
+        int from = 0;
+        for (PendingChange change : pending) {
+            int to = from + change.utenteIds().size();
+            eventPublisher.publishEvent(new UtenteChangedEvent(change.utenteIds(), change.type(),
+                    List.copyOf(cursors.subList(from, to))));
+            from = to;
+        }
+    }
+
+    /**
+     * One batched insert (a single multi-row statement with {@code rewriteBatchedStatements}).
+     *
+     * @return the generated cursors, {@code cursors.get(i)} belongs to {@code utenteIds.get(i)}
+     */
+    private List<Long> insertChanges(List<Long> utenteIds, List<UtenteChangeType> types) {
+        Timestamp changedAt = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_CHANGE_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        statement.setLong(1, utenteIds.get(i));
+                        statement.setString(2, types.get(i).name());
+                        statement.setTimestamp(3, changedAt);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return utenteIds.size();
+                    }
+                },
+                keys);
+
+        // Keys come back in statement order
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        if (keyList.size() != utenteIds.size()) {
+            throw new IllegalStateException("Expected " + utenteIds.size() + " generated keys, got " + keyList.size());
+        }
+        List<Long> cursors = new ArrayList<>(keyList.size());
+        for (Map<String, Object> key : keyList) {
+            cursors.add(((Number) key.values().iterator().next()).longValue());
+        }
+        return cursors;
+    }
+
+    /**
+     * Return the changes after {@code cursor}, collapsed to the latest change per user.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public UtenteChangesDTO changesSince(long cursor, int limit) {
+        List<UtenteChange> page = changeRepository.findChangesAfter(cursor, PageRequest.of(0, limit + 1));
+        boolean hasMore = page.size() > limit;
+        page = page.subList(0, Math.min(page.size(), limit));
+        if (page.isEmpty()) {
+            return new UtenteChangesDTO(List.of(), cursor, false);
+        }
+
+        // Only the latest change of each user matters to a replica
+        Map<Long, UtenteChange> latest = new LinkedHashMap<>();
+        for (UtenteChange change : page) {
+            latest.remove(change.getUtenteId());
+            latest.put(change.getUtenteId(), change);
+        }
+
+        List<Long> liveIds = latest.values().stream()
+                .filter(change -> change.getChangeType() != UtenteChangeType.DELETED)
+                .map(UtenteChange::getUtenteId)
+                .toList();
+        Map<Long, Utente> current = utenteRepository.findAllById(liveIds).stream()
+                .collect(Collectors.toMap(Utente::getId, Function.identity()));
+
+        List<UtenteChangeDTO> changes = new ArrayList<>(latest.size());
+        for (UtenteChange change : latest.values()) {
+            Utente utente = current.get(change.getUtenteId());
+            // A user updated here and deleted in a later page is already gone
+            UtenteChangeType type = utente == null ? UtenteChangeType.DELETED : change.getChangeType();
+            changes.add(new UtenteChangeDTO(
+                    change.getId(),
+                    change.getUtenteId(),
+                    type,
+                    change.getChangedAt(),
+                    utente != null ? utenteMapper.conver(utente) : null));
+        }
+
+        long nextCursor = page.get(page.size() - 1).getId();
+        return new UtenteChangesDTO(changes, nextCursor, hasMore);
+    }
+
+    /**
+     * Cursor of the latest change, 0 when the log is empty. Reading from there on misses
+     * nothing: cursors become visible in increasing order.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long latestCursor() {
+        return changeRepository.findLatestId();
+    }
+
+    private record PendingChange(List<Long> utenteIds, UtenteChangeType type) {
+    }
+
+    /**
+     * Changes recorded by one transaction, written by its last before-commit callback.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<PendingChange> changes = new ArrayList<>();
+
+        void add(PendingChange change) {
+            changes.add(change);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            writeChanges(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(UtenteChangeServiceImpl.this);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.giggi.basesetup.service.impl;
+
+import com.giggi.basesetup.datasource.Workload;
+import com.giggi.basesetup.datasource.WorkloadType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.giggi.basesetup.entity.Utente;
+import com.giggi.basesetup.entity.UtenteChangeType;
+import com.giggi.basesetup.repository.UtentePatch;
+import com.giggi.basesetup.repository.UtenteRepository;
+import com.giggi.basesetup.repository.projection.UtenteAvatar;
+import com.giggi.basesetup.repository.projection.UtenteField;
+import com.giggi.basesetup.repository.projection.UtenteFieldsRow;
+import com.giggi.basesetup.repository.projection.UtentiFingerprint;
+import com.giggi.basesetup.search.SearchMode;
+import com.giggi.basesetup.search.UtenteSearchHits;
+import com.giggi.basesetup.search.UtenteSearchIndex;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import com.giggi.basesetup.service.UtenteChangeService;
+import com.giggi.basesetup.service.UtentePatchResult;
+import com.giggi.basesetup.service.UtenteService;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Workload(WorkloadType.ADMIN)
+public class UtenteServiceImpl implements UtenteService {
+
+    private final UtenteRepository utenteRepository;
+    private final UtenteChangeService utenteChangeService;
+    private final UtenteSearchIndex utenteSearchIndex;
+
+    // IN-list size per query; a power of two, so in_clause_parameter_padding adds nothing to full chunks
+    @Value("${spring.app.utenti.batchChunkSize:512}")
+    private int batchChunkSize;
+
+    @Override
+    public Utente save(Utente utente) {
+        boolean isNew = utente.getId() == null;
+        Utente saved = utenteRepository.save(utente);
+        utenteChangeService.record(saved.getId(), isNew ? UtenteChangeType.CREATED : UtenteChangeType.UPDATED);
+        return saved;
+    }
+
+    @Override
+    public Utente update(Utente utente) {
+        Utente saved = utenteRepository.save(utente);
+        utenteChangeService.record(saved.getId(), UtenteChangeType.UPDATED);
+        return saved;
+    }
+
+    /**
+     * Versioned partial update without a read first; the version is only read
+     * back when nothing matched, to tell a missing user from a stale version.
+     */
+    @Override
+    public UtentePatchResult patch(Long id, long expectedVersion, UtentePatch patch) {
+        if (utenteRepository.patch(id, expectedVersion, patch) == 1) {
+            utenteChangeService.record(id, UtenteChangeType.UPDATED);
+            return UtentePatchResult.UPDATED;
+        }
+        return utenteRepository.findVersionById(id).isPresent() ? UtentePatchResult.CONFLICT : UtentePatchResult.NOT_FOUND;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        utenteRepository.findById(id).ifPresent(utente -> {
+            utenteRepository.delete(utente);
+            utenteChangeService.record(id, UtenteChangeType.DELETED);
+        });
+    }
+
+    @Override
+    public List<Utente> findAll() {
+        return utenteRepository.findAll();
+    }
+
+    /**
+     * Resolve the page of ids, then load those users with their roles in one query.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Utente> findAll(Pageable pageable) {
+        Page<Long> ids = utenteRepository.findPageOfIds(pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        return new PageImpl<>(findAllInOrder(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    @Override
+    public Utente findById(Long id) {
+        return utenteRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * Users with their roles by id, one query per chunk of distinct ids; missing ids are absent from the map.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Utente> findAllByIds(List<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Utente> byId = HashMap.newHashMap(distinct.size());
+        for (int from = 0; from < distinct.size(); from += batchChunkSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + batchChunkSize, distinct.size()));
+            for (Utente utente : utenteRepository.findAllById(chunk)) {
+                byId.put(utente.getId(), utente);
+            }
+        }
+        return byId;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersionById(Long id) {
+        return utenteRepository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UtenteFieldsRow> findFieldsById(Long id, Set<UtenteField> fields) {
+        return utenteRepository.findFieldsById(id, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UtenteFieldsRow> findFields(Set<UtenteField> fields, Pageable pageable) {
+        return utenteRepository.findFields(fields, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UtentiFingerprint fingerprint() {
+        return utenteRepository.fingerprint();
+    }
+
+    /**
+     * Resolve the page of ids from the in-memory index, then load only those users.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Utente> search(String query, SearchMode mode, Pageable pageable) {
+        UtenteSearchHits hits = utenteSearchIndex.search(query, mode, (int) pageable.getOffset(), pageable.getPageSize());
+        if (hits.ids().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.total());
+        }
+
+        return new PageImpl<>(findAllInOrder(hits.ids()), pageable, hits.total());
+    }
+
+    // Users deleted since the ids were read are skipped
+    private List<Utente> findAllInOrder(List<Long> ids) {
+        Map<Long, Utente> byId = utenteRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Utente::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UtenteAvatar> findAvatar(Long id) {
+        return utenteRepository.findAvatarById(id);
+    }
+
+    /**
+     * Point the user at a stored blob. The upload itself happens before, outside any transaction.
+     */
+    @Override
+    public boolean updateAvatar(Long id, String hash, String contentType, long size) {
+        Utente utente = utenteRepository.findById(id).orElse(null);
+        if (utente == null) {
+            return false;
+        }
+        utente.setAvatarHash(hash);
+        utente.setAvatarContentType(contentType);
+        utente.setAvatarSize(size);
+        utenteChangeService.record(id, UtenteChangeType.UPDATED);
+        return true;
+    }
+}
@@ -0,0 +1,141 @@
+package com.giggi.basesetup.storage;
+
+import com.giggi.basesetup.repository.UtenteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the blobs of the {@link ContentStore} that are no longer the avatar of any
+ * user, with their thumbnails: replaced avatars and those of deleted users.
+ * <p>
+ * Blobs are content-addressed and shared by every user with the same picture, so
+ * nothing is deleted when an avatar changes; a periodic sweep compares the blobs on
+ * disk with {@code utenti.avatar_hash} instead. Only blobs not stored again for the
+ * grace period are candidates, so an upload whose reference is not committed yet
+ * is never swept.
+ */
+@Component
+@Slf4j
+public class AvatarSweeper implements SmartLifecycle {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ContentStore contentStore;
+    private final ThumbnailService thumbnailService;
+    private final UtenteRepository utenteRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration grace;
+    private final long sweepIntervalMs;
+
+    private final Counter swept;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public AvatarSweeper(ContentStore contentStore,
+                         ThumbnailService thumbnailService,
+                         UtenteRepository utenteRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${spring.app.storage.sweepGraceMinutes:60}") long graceMinutes,
+                         @Value("${spring.app.storage.sweepIntervalMs:3600000}") long sweepIntervalMs) {
+        this.contentStore = contentStore;
+        this.thumbnailService = thumbnailService;
+        this.utenteRepository = utenteRepository;
+        // Read-write, so the lookup runs on the primary: a lagging replica could miss a new reference
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.grace = Duration.ofMinutes(graceMinutes);
+        this.sweepIntervalMs = sweepIntervalMs;
+
+        this.swept = meterRegistry.counter("storage.blobs.swept");
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "avatar-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        scheduler.scheduleWithFixedDelay(this::sweep, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * One pass over the store.
+     *
+     * @return the number of blobs deleted
+     */
+    int sweep() {
+        Instant cutoff = Instant.now().minus(grace);
+        int[] deleted = {0};
+        try {
+            contentStore.forEachBatchStoredBefore(cutoff, BATCH_SIZE, batch -> {
+                if (running) {
+                    deleted[0] += sweepBatch(batch, cutoff);
+                }
+            });
+            if (deleted[0] > 0) {
+                log.info("Swept {} unreferenced avatar blobs", deleted[0]);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Avatar sweep failed: {}", e.getMessage());
+        }
+        return deleted[0];
+    }
+
+    private int sweepBatch(List<String> hashes, Instant cutoff) {
+        List<String> found = transactionTemplate.execute(status -> utenteRepository.findReferencedAvatarHashes(hashes));
+        Set<String> referenced = found != null ? new HashSet<>(found) : Set.of();
+        int deleted = 0;
+        for (String hash : hashes) {
+            if (referenced.contains(hash)) {
+                continue;
+            }
+            try {
+                if (contentStore.deleteIfStoredBefore(hash, cutoff)) {
+                    thumbnailService.delete(hash);
+                    swept.increment();
+                    deleted++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return deleted;
+    }
+}
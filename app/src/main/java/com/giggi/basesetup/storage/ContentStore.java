@@ -0,0 +1,159 @@
+package com.giggi.basesetup.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed blob storage on the local disk.
+ * <p>
+ * Uploads are streamed through a fixed buffer into a temp file while being hashed,
+ * so memory use does not depend on the upload size; the finished file is then
+ * moved atomically to {@code <root>/<ab>/<cd>/<sha256>}. Identical content is
+ * stored once, and a blob never changes once visible. The modification time of a
+ * blob is the last time it was stored, which {@link AvatarSweeper} relies on.
+ */
+@Component
+@Slf4j
+public class ContentStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tmp;
+
+    public ContentStore(@Value("${spring.app.storage.root:./data/blobs}") String root) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.tmp = this.root.resolve("tmp");
+        Files.createDirectories(tmp);
+    }
+
+    /**
+     * Stream {@code content} into the store.
+     *
+     * @throws ContentTooLargeException when more than {@code maxBytes} are read
+     */
+    public StoredContent store(InputStream content, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new ContentTooLargeException(maxBytes);
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (Files.exists(target)) {
+                // Stored again: not swept before the new reference is committed
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                return new StoredContent(hash, size);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content stored concurrently
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new StoredContent(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Path of a stored blob, empty when the hash is malformed or unknown.
+     */
+    public Optional<Path> find(String hash) {
+        if (!isValidHash(hash)) {
+            return Optional.empty();
+        }
+        Path path = pathOf(hash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Hashes of the blobs last stored before {@code cutoff}, handed over in batches of
+     * at most {@code batchSize}.
+     */
+    public void forEachBatchStoredBefore(Instant cutoff, int batchSize, Consumer<List<String>> consumer) throws IOException {
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                String name = path.getFileName().toString();
+                if (isValidHash(name) && Files.isRegularFile(path)
+                        && Files.getLastModifiedTime(path).toInstant().isBefore(cutoff)) {
+                    batch.add(name);
+                    if (batch.size() == batchSize) {
+                        consumer.accept(List.copyOf(batch));
+                        batch.clear();
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(List.copyOf(batch));
+        }
+    }
+
+    /**
+     * Delete a blob unless it was stored again since {@code cutoff}.
+     *
+     * @return whether the blob was deleted
+     */
+    public boolean deleteIfStoredBefore(String hash, Instant cutoff) throws IOException {
+        Optional<Path> path = find(hash);
+        if (path.isEmpty() || !Files.getLastModifiedTime(path.get()).toInstant().isBefore(cutoff)) {
+            return false;
+        }
+        return Files.deleteIfExists(path.get());
+    }
+
+    public static boolean isValidHash(String hash) {
+        return hash != null && SHA256_HEX.matcher(hash).matches();
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.giggi.basesetup.storage;
+
+public class ContentTooLargeException extends RuntimeException {
+
+    public ContentTooLargeException(long maxBytes) {
+        super("Content exceeds the limit of " + maxBytes + " bytes");
+    }
+}
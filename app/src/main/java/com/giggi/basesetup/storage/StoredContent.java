@@ -0,0 +1,7 @@
+package com.giggi.basesetup.storage;
+
+/**
+ * A blob in the {@link ContentStore}: lowercase hex SHA-256 and size in bytes.
+ */
+public record StoredContent(String hash, long size) {
+}
@@ -0,0 +1,261 @@
+package com.giggi.basesetup.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates avatar thumbnails on a small bounded pool, away from request threads.
+ * <p>
+ * Thumbnails are cached on disk under {@code <root>/thumbs/<size>/<ab>/<hash>.<ext>},
+ * keyed by the content hash of the original, so they never go stale and can be
+ * cached by clients forever. Opaque images become JPEG, images with alpha PNG.
+ * Large originals are decoded with subsampling, never at full resolution.
+ */
+@Component
+@Slf4j
+public class ThumbnailService {
+
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+
+    private final ContentStore contentStore;
+    private final Path root;
+    private final ThreadPoolExecutor executor;
+    // One generation per original at a time, shared by upload and on-demand requests
+    private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter generated;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Timer generationTimer;
+
+    public ThumbnailService(ContentStore contentStore,
+                            MeterRegistry meterRegistry,
+                            @Value("${spring.app.storage.root:./data/blobs}") String storageRoot,
+                            @Value("${spring.app.thumbnails.workers:2}") int workers,
+                            @Value("${spring.app.thumbnails.queueCapacity:100}") int queueCapacity) throws IOException {
+        this.contentStore = contentStore;
+        this.root = Path.of(storageRoot).toAbsolutePath().normalize().resolve("thumbs");
+        Files.createDirectories(root);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("thumbnails.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        this.generated = meterRegistry.counter("thumbnails.generated");
+        this.failed = meterRegistry.counter("thumbnails.failed");
+        this.rejected = meterRegistry.counter("thumbnails.rejected");
+        this.generationTimer = meterRegistry.timer("thumbnails.generation");
+    }
+
+    /**
+     * Generate every size of the given original in the background.
+     *
+     * @return completes when all sizes exist; fails when the queue is full or the image cannot be read
+     */
+    public CompletableFuture<Void> generate(String hash) {
+        CompletableFuture<Void> pending = inFlight.get(hash);
+        if (pending != null) {
+            return pending;
+        }
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        pending = inFlight.putIfAbsent(hash, created);
+        if (pending != null) {
+            return pending;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    generationTimer.recordCallable(() -> {
+                        generateAll(hash);
+                        return null;
+                    });
+                    generated.increment();
+                    created.complete(null);
+                } catch (Exception e) {
+                    failed.increment();
+                    log.warn("Thumbnail generation failed for {}: {}", hash, e.getMessage());
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(hash, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            inFlight.remove(hash, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * Cached thumbnail, empty when not generated yet.
+     */
+    public Optional<Path> find(String hash, ThumbnailSize size) {
+        if (!ContentStore.isValidHash(hash)) {
+            return Optional.empty();
+        }
+        for (String extension : new String[]{"jpg", "png"}) {
+            Path path = pathOf(hash, size, extension);
+            if (Files.isRegularFile(path)) {
+                return Optional.of(path);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Delete every cached thumbnail of an original.
+     */
+    public void delete(String hash) throws IOException {
+        if (!ContentStore.isValidHash(hash)) {
+            return;
+        }
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            for (String extension : new String[]{"jpg", "png"}) {
+                Files.deleteIfExists(pathOf(hash, size, extension));
+            }
+        }
+    }
+
+    private void generateAll(String hash) throws IOException {
+        Path original = contentStore.find(hash).orElseThrow(() -> new IOException("Unknown blob " + hash));
+        int largest = 0;
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            largest = Math.max(largest, size.pixels());
+        }
+
+        BufferedImage source = readSubsampled(original, largest);
+        boolean alpha = source.getColorModel().hasAlpha();
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            if (find(hash, size).isEmpty()) {
+                write(scaleToSquare(source, size.pixels(), alpha), pathOf(hash, size, alpha ? "png" : "jpg"), alpha);
+            }
+        }
+    }
+
+    /**
+     * Decode only every n-th pixel when the original is much larger than the biggest thumbnail.
+     */
+    private static BufferedImage readSubsampled(Path original, int target) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.min(width, height) / (target * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Center-crop to a square and scale with bicubic interpolation.
+     */
+    private static BufferedImage scaleToSquare(BufferedImage source, int pixels, boolean alpha) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+
+        BufferedImage target = new BufferedImage(pixels, pixels, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, pixels, pixels, x, y, x + side, y + side, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static void write(BufferedImage image, Path target, boolean png) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "thumb-", ".part");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName(png ? "png" : "jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if (!png) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(0.85f);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path pathOf(String hash, ThumbnailSize size, String extension) {
+        return root.resolve(size.key()).resolve(hash.substring(0, 2)).resolve(hash + "." + extension);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,43 @@
+package com.giggi.basesetup.storage;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fixed square thumbnail sizes generated for every avatar.
+ */
+public enum ThumbnailSize {
+    SMALL(64),
+    MEDIUM(128),
+    LARGE(256);
+
+    private final int pixels;
+
+    ThumbnailSize(int pixels) {
+        this.pixels = pixels;
+    }
+
+    public int pixels() {
+        return pixels;
+    }
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Content-addressed thumbnail URLs by size key, null without an avatar.
+     */
+    public static Map<String, String> urls(String avatarHash) {
+        if (avatarHash == null) {
+            return null;
+        }
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ThumbnailSize size : values()) {
+            urls.put(size.key(), "/api/avatars/" + avatarHash + "/" + size.key());
+        }
+        return Collections.unmodifiableMap(urls);
+    }
+}
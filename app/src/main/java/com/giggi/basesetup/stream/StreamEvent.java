@@ -0,0 +1,8 @@
+package com.giggi.basesetup.stream;
+
+/**
+ * A change serialized once and shared by every subscriber. {@code cursor} is the
+ * change-log cursor, sent as the SSE event id and used as resume token.
+ */
+record StreamEvent(long cursor, String name, String json) {
+}
@@ -0,0 +1,74 @@
+package com.giggi.basesetup.stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One SSE connection: a bounded buffer filled by the fan-out and drained by a
+ * dedicated (virtual) writer thread, so a slow client never blocks the others.
+ */
+class StreamSubscriber {
+
+    private static final StreamEvent CLOSE = new StreamEvent(-1, "close", "");
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<StreamEvent> buffer;
+    private volatile boolean closed;
+
+    StreamSubscriber(SseEmitter emitter, int bufferSize) {
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Non-blocking; false when the buffer is full.
+     */
+    boolean offer(StreamEvent event) {
+        return !closed && buffer.offer(event);
+    }
+
+    /**
+     * Next buffered event, or null when nothing arrived within the timeout.
+     */
+    StreamEvent poll(long timeoutMs) throws InterruptedException {
+        StreamEvent event = buffer.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        return event == CLOSE ? null : event;
+    }
+
+    void send(StreamEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(Long.toString(event.cursor()))
+                .name(event.name())
+                .data(event.json(), MediaType.APPLICATION_JSON));
+    }
+
+    void sendControl(String name, String data) throws IOException {
+        emitter.send(SseEmitter.event().name(name).data(data));
+    }
+
+    void keepAlive() throws IOException {
+        emitter.send(SseEmitter.event().comment("keepalive"));
+    }
+
+    /**
+     * Mark closed and wake the writer; the emitter itself is completed by the caller.
+     */
+    void close() {
+        closed = true;
+        buffer.clear();
+        buffer.offer(CLOSE);
+    }
+}
@@ -0,0 +1,291 @@
+package com.giggi.basesetup.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giggi.basesetup.dto.response.utente.UtenteChangeDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteChangesDTO;
+import com.giggi.basesetup.service.UtenteChangeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live stream of user changes over SSE, tailing the change log.
+ * <p>
+ * Every instance polls {@link UtenteChangeService#changesSince} from its own thread,
+ * so it sees every change whichever instance wrote it, in cursor order (cursors become
+ * visible in commit order).
+ * <p>
+ * The servlet request is released as soon as the emitter is returned; each
+ * subscriber is then served by its own virtual thread reading a bounded buffer.
+ * A subscriber whose buffer fills up is disconnected and resumes from its last
+ * event id, replayed from the change log, instead of slowing the fan-out down.
+ */
+@Component
+@Slf4j
+public class UtenteStreamService implements SmartLifecycle {
+
+    private static final int REPLAY_PAGE_SIZE = 500;
+    private static final int MAX_REPLAY_PAGES = 20;
+
+    private final UtenteChangeService utenteChangeService;
+    private final ObjectMapper objectMapper;
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long keepAliveMs;
+    private final long pollIntervalMs;
+    private final int pageSize;
+
+    private final Set<StreamSubscriber> subscribers = new CopyOnWriteArraySet<>();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter slowConsumers;
+    private final Counter delivered;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    // Last change-log cursor fanned out, -1 until the first poll found the head of the log
+    private volatile long position = -1;
+
+    public UtenteStreamService(UtenteChangeService utenteChangeService,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${spring.app.stream.bufferSize:256}") int bufferSize,
+                               @Value("${spring.app.stream.maxSubscribers:1000}") int maxSubscribers,
+                               @Value("${spring.app.stream.timeoutMs:1800000}") long timeoutMs,
+                               @Value("${spring.app.stream.keepAliveMs:15000}") long keepAliveMs,
+                               @Value("${spring.app.stream.pollIntervalMs:500}") long pollIntervalMs,
+                               @Value("${spring.app.stream.pageSize:500}") int pageSize) {
+        this.utenteChangeService = utenteChangeService;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.keepAliveMs = keepAliveMs;
+        this.pollIntervalMs = pollIntervalMs;
+        this.pageSize = pageSize;
+
+        Gauge.builder("stream.subscribers", subscribers, Set::size).register(meterRegistry);
+        this.slowConsumers = meterRegistry.counter("stream.subscribers.dropped", "reason", "slow-consumer");
+        this.delivered = meterRegistry.counter("stream.events.delivered");
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stream-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        scheduler.schedule(this::poll, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Open a stream. With a resume cursor, the changes after it are replayed first.
+     *
+     * @return null when the subscriber limit is reached or the feed has not reached
+     * the change log yet
+     */
+    public SseEmitter subscribe(Long resumeCursor) {
+        if (subscribers.size() >= maxSubscribers || position < 0) {
+            return null;
+        }
+
+        SseEmitter emitter = createEmitter();
+        StreamSubscriber subscriber = new StreamSubscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        // Register before replaying so nothing published meanwhile is missed
+        subscribers.add(subscriber);
+        writers.execute(() -> serve(subscriber, resumeCursor));
+        return emitter;
+    }
+
+    private void poll() {
+        if (!running) {
+            return;
+        }
+        long delay = pollOnce();
+        if (running) {
+            scheduler.schedule(this::poll, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * One read of the change log. Returns the delay before the next one: none while
+     * full pages keep coming.
+     */
+    long pollOnce() {
+        try {
+            if (position < 0) {
+                // Live subscribers want what happens from now on, resuming ones replay the rest
+                position = utenteChangeService.latestCursor();
+                return 0;
+            }
+            UtenteChangesDTO changes = utenteChangeService.changesSince(position, pageSize);
+            publish(changes.getChanges().stream().map(this::toEvent).toList());
+            position = changes.getNextCursor();
+            return changes.isHasMore() ? 0 : pollIntervalMs;
+        } catch (RuntimeException e) {
+            log.warn("Change log read failed, retrying in {} ms: {}", pollIntervalMs, e.getMessage());
+            return pollIntervalMs;
+        }
+    }
+
+    /**
+     * Hand each change, serialized once, to every subscriber without blocking.
+     */
+    void publish(List<StreamEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        for (StreamSubscriber subscriber : subscribers) {
+            for (StreamEvent event : events) {
+                if (!subscriber.offer(event)) {
+                    if (!subscriber.isClosed()) {
+                        slowConsumers.increment();
+                        log.debug("Disconnecting slow SSE subscriber, buffer of {} events full", bufferSize);
+                        disconnect(subscriber);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * The subscriber is registered before the replay, so the changes fanned out while
+     * it runs are both replayed and buffered: those are skipped by cursor, as are the
+     * ones the client already had when the feed of this instance is behind it.
+     */
+    private void serve(StreamSubscriber subscriber, Long resumeCursor) {
+        try {
+            Set<Long> replayed = new HashSet<>();
+            long replayedUpTo = -1;
+            if (resumeCursor != null) {
+                replayedUpTo = replay(subscriber, resumeCursor, replayed);
+            }
+            subscriber.sendControl("ready", "{}");
+
+            while (!subscriber.isClosed()) {
+                StreamEvent event = subscriber.poll(keepAliveMs);
+                if (event == null) {
+                    if (!subscriber.isClosed()) {
+                        subscriber.keepAlive();
+                    }
+                } else if (resumeCursor == null
+                        || (event.cursor() > resumeCursor && !replayed.contains(event.cursor()))) {
+                    if (event.cursor() > replayedUpTo) {
+                        // Past the replay, nothing more can overlap it
+                        replayed.clear();
+                    }
+                    subscriber.send(event);
+                    delivered.increment();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Client gone; the emitter callbacks remove the subscriber
+            unsubscribe(subscriber);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unsubscribe(subscriber);
+        }
+    }
+
+    /**
+     * Send the changes after {@code cursor} from the change log.
+     *
+     * @return the cursor the replay reached, everything up to it has been sent
+     */
+    private long replay(StreamSubscriber subscriber, long cursor, Set<Long> replayed) throws IOException {
+        long next = Math.max(cursor, 0);
+        for (int page = 0; page < MAX_REPLAY_PAGES; page++) {
+            UtenteChangesDTO changes = utenteChangeService.changesSince(next, REPLAY_PAGE_SIZE);
+            for (UtenteChangeDTO change : changes.getChanges()) {
+                subscriber.send(toEvent(change));
+                replayed.add(change.getCursor());
+            }
+            next = changes.getNextCursor();
+            if (!changes.isHasMore()) {
+                return next;
+            }
+        }
+        // Too far behind: tell the client to reload, then continue from here
+        subscriber.sendControl("reset", Long.toString(next));
+        return next;
+    }
+
+    private StreamEvent toEvent(UtenteChangeDTO change) {
+        return new StreamEvent(change.getCursor(), change.getType().name(), toJson(change));
+    }
+
+    // Overridden in tests to capture what is sent
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private String toJson(UtenteChangeDTO change) {
+        try {
+            return objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void disconnect(StreamSubscriber subscriber) {
+        unsubscribe(subscriber);
+        subscriber.emitter().complete();
+    }
+
+    private void unsubscribe(StreamSubscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.close();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (StreamSubscriber subscriber : subscribers) {
+            disconnect(subscriber);
+        }
+        writers.shutdownNow();
+    }
+}
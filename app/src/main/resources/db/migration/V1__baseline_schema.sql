@@ -0,0 +1,86 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update, with explicit index names.
+-- Databases created that way are baselined at this version (spring.flyway.baseline-on-migrate)
+-- and only receive the later migrations.
+
+CREATE TABLE roles (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    created_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_roles_name UNIQUE (name)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+-- email and username use a case-insensitive collation: their unique indexes serve
+-- case-insensitive login lookups without LOWER() in the query
+CREATE TABLE utenti (
+    id                      BIGINT       NOT NULL AUTO_INCREMENT,
+    username                VARCHAR(50)  NOT NULL,
+    email                   VARCHAR(100) NOT NULL,
+    first_name              VARCHAR(100) NOT NULL,
+    last_name               VARCHAR(100) NOT NULL,
+    password                VARCHAR(120) NOT NULL,
+    enabled                 BIT          NOT NULL,
+    account_non_expired     BIT          NOT NULL,
+    account_non_locked      BIT          NOT NULL,
+    credentials_non_expired BIT          NOT NULL,
+    created_at              DATETIME(6)  NOT NULL,
+    updated_at              DATETIME(6),
+    avatar_hash             VARCHAR(64),
+    avatar_content_type     VARCHAR(100),
+    avatar_size             BIGINT,
+    version                 BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_utenti_username UNIQUE (username),
+    CONSTRAINT uk_utenti_email UNIQUE (email)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+-- The primary key serves user -> roles, idx_user_roles_role serves role -> users
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    KEY idx_user_roles_role (role_id, user_id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES utenti (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+-- No foreign key: tombstones outlive the user row
+CREATE TABLE utenti_changes (
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    utente_id   BIGINT      NOT NULL,
+    change_type ENUM ('CREATED','UPDATED','DELETED','ROLES_CHANGED') NOT NULL,
+    changed_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE audit_log (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    event_type     ENUM ('LOGIN','SIGNUP','TOKEN_VALIDATION','TOKEN_REFRESH') NOT NULL,
+    success        BIT          NOT NULL,
+    principal      VARCHAR(100),
+    remote_address VARCHAR(45),
+    detail         VARCHAR(255),
+    occurred_at    DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_audit_log_occurred_at (occurred_at),
+    KEY idx_audit_log_principal (principal)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE outbox_events (
+    id             BIGINT        NOT NULL AUTO_INCREMENT,
+    aggregate_type VARCHAR(30)   NOT NULL,
+    aggregate_id   BIGINT        NOT NULL,
+    event_type     VARCHAR(20)   NOT NULL,
+    change_cursor  BIGINT        NOT NULL,
+    payload        VARCHAR(2000) NOT NULL,
+    created_at     DATETIME(6)   NOT NULL,
+    processed_at   DATETIME(6),
+    PRIMARY KEY (id),
+    KEY idx_outbox_events_pending (processed_at, id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+INSERT INTO roles (name, description, created_at) VALUES
+    ('ROLE_USER', 'Standard user role', NOW(6)),
+    ('ROLE_ADMIN', 'Administrator role', NOW(6)),
+    ('ROLE_MODERATOR', 'Moderator role', NOW(6));
@@ -0,0 +1,12 @@
+-- Indexes for repository queries that ddl-auto never created.
+
+-- Bulk selection by creation date (UtenteBulkRepository.findIdsAfter with createdBefore/createdAfter);
+-- id as second column keeps keyset order inside a date range
+CREATE INDEX idx_utenti_created_at ON utenti (created_at, id);
+
+-- UtenteRepository.fingerprint(): COUNT, MAX(id) and SUM(version) read this narrow index
+-- (InnoDB appends the primary key) instead of scanning the clustered rows
+CREATE INDEX idx_utenti_version ON utenti (version);
+
+-- AuditLogRepository.search by event type, newest first (ORDER BY id DESC comes from the implicit id suffix)
+CREATE INDEX idx_audit_log_event_type ON audit_log (event_type);
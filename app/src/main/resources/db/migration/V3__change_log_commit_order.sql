@@ -0,0 +1,10 @@
+-- Serializes the change-log inserts with their commits (UtenteChangeServiceImpl.writeChanges):
+-- each writer updates this row right before inserting its changes and keeps the lock until
+-- commit, so utenti_changes ids become visible in increasing order
+CREATE TABLE utenti_changes_lock (
+    id      TINYINT NOT NULL,
+    commits BIGINT  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+INSERT INTO utenti_changes_lock (id, commits) VALUES (1, 0);
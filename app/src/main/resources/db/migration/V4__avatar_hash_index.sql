@@ -0,0 +1,2 @@
+-- AvatarSweeper: which of a batch of stored blobs are still the avatar of some user
+CREATE INDEX idx_utenti_avatar_hash ON utenti (avatar_hash);
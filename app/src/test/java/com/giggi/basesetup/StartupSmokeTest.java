@@ -0,0 +1,154 @@
+package com.giggi.basesetup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Black-box smoke test of a packaged build, native binary or JVM jar. Prints
+ * time-to-first-healthy-response and resident memory so both can be compared:
+ * <pre>
+ * ./mvnw -pl app -Pnative native:compile
+ * ./mvnw -pl app test -Dtest=StartupSmokeTest -Dsmoke.command=target/base-setup
+ * ./mvnw -pl app package -DskipTests
+ * ./mvnw -pl app test -Dtest=StartupSmokeTest -Dsmoke.command="java -jar target/BaseSetup-0.0.1-SNAPSHOT.jar"
+ * </pre>
+ * Needs the database from application.properties; Flyway creates the schema and the roles.
+ */
+@EnabledIfSystemProperty(named = "smoke.command", matches = ".+")
+class StartupSmokeTest {
+
+    private static final int PORT = 18080;
+    private static final String BASE_URL = "http://localhost:" + PORT;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Process process;
+
+    @BeforeAll
+    static void start() throws Exception {
+        List<String> command = new ArrayList<>(List.of(System.getProperty("smoke.command").trim().split("\\s+")));
+        command.add("--server.port=" + PORT);
+
+        long start = System.nanoTime();
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File("target/smoke-test.log"))
+                .start();
+
+        long deadline = start + STARTUP_TIMEOUT.toNanos();
+        while (!isHealthy()) {
+            assertThat(process.isAlive()).as("application exited, see target/smoke-test.log").isTrue();
+            assertThat(System.nanoTime()).as("application did not start in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        long startupMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("[smoke] %s: first healthy response after %d ms, RSS %s%n",
+                command.get(0), startupMillis, residentMemory(process.pid()));
+    }
+
+    @AfterAll
+    static void stop() throws InterruptedException {
+        if (process != null) {
+            System.out.printf("[smoke] RSS after tests: %s%n", residentMemory(process.pid()));
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    @Test
+    void signupSigninAndAuthenticatedRequest() throws Exception {
+        String username = "smoke" + System.currentTimeMillis();
+
+        HttpResponse<String> signup = post("/api/auth/signup", """
+                {"username":"%s","email":"%s@example.com","firstName":"Smoke","lastName":"Test","password":"password123"}
+                """.formatted(username, username), null);
+        assertThat(signup.statusCode()).isEqualTo(201);
+
+        HttpResponse<String> signin = post("/api/auth/signin", """
+                {"usernameOrEmail":"%s","password":"password123"}
+                """.formatted(username), null);
+        assertThat(signin.statusCode()).isEqualTo(200);
+        String token = objectMapper.readTree(signin.body()).get("token").asText();
+
+        HttpResponse<String> validate = post("/api/auth/validate", "", token);
+        assertThat(validate.statusCode()).isEqualTo(200);
+
+        HttpResponse<String> page = client.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/api/utenti?page=0&size=5"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(page.statusCode()).isEqualTo(200);
+        JsonNode content = objectMapper.readTree(page.body()).get("content");
+        assertThat(content.isArray()).isTrue();
+    }
+
+    @Test
+    void rejectsMissingToken() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/api/utenti"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(401);
+        assertThat(objectMapper.readTree(response.body()).get("path").asText()).isEqualTo("/api/utenti");
+    }
+
+    private static HttpResponse<String> post(String path, String json, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(BASE_URL + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static boolean isHealthy() {
+        try {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/actuator/health"))
+                    .timeout(Duration.ofSeconds(2))
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String residentMemory(long pid) {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        try {
+            return Files.readAllLines(status).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> line.substring("VmRSS:".length()).trim())
+                    .findFirst()
+                    .orElse("n/a");
+        } catch (IOException e) {
+            return "n/a (" + status + " not readable)";
+        }
+    }
+}
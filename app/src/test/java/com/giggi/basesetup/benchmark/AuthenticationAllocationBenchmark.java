@@ -0,0 +1,116 @@
+package com.giggi.basesetup.benchmark;
+
+import com.giggi.basesetup.entity.RoleName;
+import com.giggi.basesetup.security.jwt.JwtPrincipal;
+import com.giggi.basesetup.security.jwt.JwtUtils;
+import com.giggi.tokenverifier.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-request cost of turning a bearer token into an Authentication: the previous
+ * filter (key decoded and parser built per call, token parsed three times, fresh
+ * authority objects) versus the current one. Run with the gc profiler to compare
+ * bytes allocated per operation:
+ * {@code ./mvnw -pl app -Pbenchmark test -Dbenchmark.include=AuthenticationAllocation}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AuthenticationAllocationBenchmark {
+
+    private static final String SECRET = "mySecretKeyThatIsAtLeast256BitsLongForHS256AlgorithmSecurityPurposes";
+
+    private JwtUtils jwtUtils;
+    private String token;
+    private MockHttpServletRequest request;
+    private WebAuthenticationDetailsSource detailsSource;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        token = Jwts.builder()
+                .subject("johndoe")
+                .claim("id", 42L)
+                .claim("email", "john.doe@example.com")
+                .claim("authorities", List.of(RoleName.ROLE_USER.getCode(), RoleName.ROLE_ADMIN.getCode()))
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(legacyKey())
+                .compact();
+
+        request = new MockHttpServletRequest("GET", "/api/utenti");
+        request.setRemoteAddr("10.0.0.1");
+        detailsSource = new WebAuthenticationDetailsSource();
+    }
+
+    @Benchmark
+    public UsernamePasswordAuthenticationToken legacy() {
+        Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token);
+        String username = Jwts.parser().verifyWith(legacyKey()).build()
+                .parseSignedClaims(token).getPayload().getSubject();
+        Claims claims = Jwts.parser().verifyWith(legacyKey()).build()
+                .parseSignedClaims(token).getPayload();
+        @SuppressWarnings("unchecked")
+        List<String> names = claims.get("authorities", List.class);
+        List<GrantedAuthority> authorities = names.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(username, null, authorities);
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        return authentication;
+    }
+
+    @Benchmark
+    public UsernamePasswordAuthenticationToken current() {
+        VerifiedToken verified = jwtUtils.verify(token).orElseThrow();
+        JwtPrincipal principal = new JwtPrincipal(verified.getSubject(), verified.getUserId(),
+                jwtUtils.getRoleMask(verified));
+
+        UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, jwtUtils.getAuthorities(verified));
+        authentication.setDetails(detailsSource.buildDetails(request));
+        return authentication;
+    }
+
+    @Benchmark
+    public boolean roleCheckLegacy() {
+        List<GrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+        return authorities.stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+
+    @Benchmark
+    public boolean roleCheckCurrent() {
+        return new JwtPrincipal("johndoe", 42L, RoleName.ROLE_USER.mask() | RoleName.ROLE_ADMIN.mask())
+                .hasRole(RoleName.ROLE_ADMIN);
+    }
+
+    private static SecretKey legacyKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+}
@@ -0,0 +1,146 @@
+package com.giggi.basesetup.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.giggi.basesetup.config.JacksonConfig;
+import com.giggi.basesetup.dto.response.MessageResponse;
+import com.giggi.basesetup.dto.response.jwt.JwtResponse;
+import com.giggi.basesetup.dto.response.utente.RuoloFindDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteFindAllDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteFindDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode time of the negotiated formats (JSON, Smile, CBOR) for the
+ * DTOs served to other services, with the mapper setup of {@link JacksonConfig}.
+ * Payload sizes, raw and gzip, are printed once per trial:
+ * {@code ./mvnw -pl app -Pbenchmark test -Dbenchmark.include=BinaryFormat}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"100"})
+    private int users;
+
+    private ObjectMapper mapper;
+
+    private UtenteFindAllDTO utenti;
+    private JwtResponse jwtResponse;
+    private MessageResponse messageResponse;
+
+    private byte[] utentiBytes;
+    private byte[] jwtResponseBytes;
+    private byte[] messageResponseBytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        JacksonConfig jacksonConfig = new JacksonConfig();
+        ObjectMapper base = switch (format) {
+            case "smile" -> new SmileMapper();
+            case "cbor" -> new CBORMapper();
+            default -> new JsonMapper();
+        };
+        mapper = base.registerModule(new JavaTimeModule())
+                .registerModule(jacksonConfig.blackbirdModule())
+                .registerModule(jacksonConfig.responseFragmentModule());
+
+        utenti = new UtenteFindAllDTO(sampleUsers(users));
+        jwtResponse = new JwtResponse("eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJqb2huZG9lIn0.signature", 1L,
+                "johndoe", "john.doe@example.com", "John", "Doe", List.of("ROLE_USER", "ROLE_ADMIN"), 57600000L);
+        messageResponse = MessageResponse.success("Token valido");
+
+        utentiBytes = mapper.writeValueAsBytes(utenti);
+        jwtResponseBytes = mapper.writeValueAsBytes(jwtResponse);
+        messageResponseBytes = mapper.writeValueAsBytes(messageResponse);
+
+        System.out.printf("%n%s: UtenteFindAllDTO (%d users) %d bytes raw, %d gzip; JwtResponse %d; MessageResponse %d%n",
+                format, users, utentiBytes.length, gzip(utentiBytes).length,
+                jwtResponseBytes.length, messageResponseBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeUtenti() throws IOException {
+        return mapper.writeValueAsBytes(utenti);
+    }
+
+    @Benchmark
+    public UtenteFindAllDTO decodeUtenti() throws IOException {
+        return mapper.readValue(utentiBytes, UtenteFindAllDTO.class);
+    }
+
+    @Benchmark
+    public byte[] encodeJwtResponse() throws IOException {
+        return mapper.writeValueAsBytes(jwtResponse);
+    }
+
+    @Benchmark
+    public JwtResponse decodeJwtResponse() throws IOException {
+        return mapper.readValue(jwtResponseBytes, JwtResponse.class);
+    }
+
+    @Benchmark
+    public byte[] encodeMessageResponse() throws IOException {
+        return mapper.writeValueAsBytes(messageResponse);
+    }
+
+    @Benchmark
+    public MessageResponse decodeMessageResponse() throws IOException {
+        return mapper.readValue(messageResponseBytes, MessageResponse.class);
+    }
+
+    private static List<UtenteFindDTO> sampleUsers(int count) {
+        RuoloFindDTO userRole = role("ROLE_USER", "Standard user role");
+        RuoloFindDTO adminRole = role("ROLE_ADMIN", "Administrator role");
+
+        List<UtenteFindDTO> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UtenteFindDTO dto = new UtenteFindDTO();
+            dto.setId((long) i);
+            dto.setUsername("user" + i);
+            dto.setEmail("user" + i + "@example.com");
+            dto.setFirstName("First" + i);
+            dto.setLastName("Last" + i);
+            dto.setEnabled(true);
+            dto.setAccountNonExpired(true);
+            dto.setAccountNonLocked(true);
+            dto.setCredentialsNonExpired(true);
+            dto.setRoles(i % 10 == 0 ? Set.of(userRole, adminRole) : Set.of(userRole));
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private static RuoloFindDTO role(String name, String description) {
+        RuoloFindDTO role = new RuoloFindDTO();
+        role.setName(name);
+        role.setDescription(description);
+        return role;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,133 @@
+package com.giggi.basesetup.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.giggi.basesetup.config.JacksonConfig;
+import com.giggi.basesetup.dto.response.MessageResponse;
+import com.giggi.basesetup.dto.response.jwt.JwtResponse;
+import com.giggi.basesetup.dto.response.utente.RuoloFindDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteFindAllDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteFindDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization CPU of the hot response DTOs with a plain ObjectMapper versus the
+ * tuned one from {@link JacksonConfig}. Bytes on the wire (raw and gzip) are
+ * printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int users;
+
+    private ObjectMapper plainMapper;
+    private ObjectMapper tunedMapper;
+
+    private UtenteFindAllDTO utenti;
+    private JwtResponse jwtResponse;
+    private MessageResponse messageResponse;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        JacksonConfig jacksonConfig = new JacksonConfig();
+        plainMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .build();
+        tunedMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .addModule(jacksonConfig.blackbirdModule())
+                .addModule(jacksonConfig.responseFragmentModule())
+                .build();
+
+        utenti = new UtenteFindAllDTO(sampleUsers(users));
+        jwtResponse = new JwtResponse("eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJqb2huZG9lIn0.signature", 1L,
+                "johndoe", "john.doe@example.com", "John", "Doe", List.of("ROLE_USER", "ROLE_ADMIN"), 57600000L);
+        messageResponse = MessageResponse.success("User registered successfully!");
+
+        byte[] json = tunedMapper.writeValueAsBytes(utenti);
+        System.out.printf("%nUtenteFindAllDTO with %d users: %d bytes raw, %d bytes gzip%n",
+                users, json.length, gzip(json).length);
+    }
+
+    @Benchmark
+    public byte[] utentiPlain() throws IOException {
+        return plainMapper.writeValueAsBytes(utenti);
+    }
+
+    @Benchmark
+    public byte[] utentiTuned() throws IOException {
+        return tunedMapper.writeValueAsBytes(utenti);
+    }
+
+    @Benchmark
+    public byte[] jwtResponsePlain() throws IOException {
+        return plainMapper.writeValueAsBytes(jwtResponse);
+    }
+
+    @Benchmark
+    public byte[] jwtResponseTuned() throws IOException {
+        return tunedMapper.writeValueAsBytes(jwtResponse);
+    }
+
+    @Benchmark
+    public byte[] messageResponsePlain() throws IOException {
+        return plainMapper.writeValueAsBytes(messageResponse);
+    }
+
+    @Benchmark
+    public byte[] messageResponseTuned() throws IOException {
+        return tunedMapper.writeValueAsBytes(messageResponse);
+    }
+
+    private static List<UtenteFindDTO> sampleUsers(int count) {
+        RuoloFindDTO userRole = role("ROLE_USER", "Standard user role");
+        RuoloFindDTO adminRole = role("ROLE_ADMIN", "Administrator role");
+
+        List<UtenteFindDTO> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UtenteFindDTO dto = new UtenteFindDTO();
+            dto.setId((long) i);
+            dto.setUsername("user" + i);
+            dto.setEmail("user" + i + "@example.com");
+            dto.setFirstName("First" + i);
+            dto.setLastName("Last" + i);
+            dto.setEnabled(true);
+            dto.setAccountNonExpired(true);
+            dto.setAccountNonLocked(true);
+            dto.setCredentialsNonExpired(true);
+            dto.setRoles(i % 10 == 0 ? Set.of(userRole, adminRole) : Set.of(userRole));
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private static RuoloFindDTO role(String name, String description) {
+        RuoloFindDTO role = new RuoloFindDTO();
+        role.setName(name);
+        role.setDescription(description);
+        return role;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,70 @@
+package com.giggi.basesetup.benchmark;
+
+import com.giggi.basesetup.entity.RoleName;
+import com.giggi.basesetup.security.RoleAuthorities;
+import com.giggi.basesetup.security.jwt.JwtUtils;
+import com.giggi.basesetup.security.service.UserDetailsImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full versus compact access tokens: the {@code Authorization} header size of each is
+ * printed once per trial, the benchmarks measure verify-and-parse time plus the
+ * authority lookup done by {@code AuthTokenFilter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TokenFormatBenchmark {
+
+    private static final String SECRET = "mySecretKeyThatIsAtLeast256BitsLongForHS256AlgorithmSecurityPurposes";
+
+    private JwtUtils jwtUtils;
+    private String fullToken;
+    private String compactToken;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int mask = RoleName.ROLE_USER.mask() | RoleName.ROLE_ADMIN.mask();
+        UserDetailsImpl user = new UserDetailsImpl(42L, "johndoe", "john.doe@example.com", "John", "Doe",
+                "$2a$10$hash", true, true, true, true, mask, RoleAuthorities.forMask(mask));
+
+        fullToken = jwtUtils(false).generateTokenFromUser(user);
+        jwtUtils = jwtUtils(true);
+        compactToken = jwtUtils.generateTokenFromUser(user);
+
+        System.out.printf("%nAuthorization header: full %d bytes, compact %d bytes%n",
+                headerSize(fullToken), headerSize(compactToken));
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> parseFull() {
+        return jwtUtils.getAuthorities(jwtUtils.verify(fullToken).orElseThrow());
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> parseCompact() {
+        return jwtUtils.getAuthorities(jwtUtils.verify(compactToken).orElseThrow());
+    }
+
+    private static JwtUtils jwtUtils(boolean compact) {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(utils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(utils, "jwtCompactTokens", compact);
+        ReflectionTestUtils.invokeMethod(utils, "init");
+        return utils;
+    }
+
+    private static int headerSize(String token) {
+        return ("Authorization: Bearer " + token).getBytes(StandardCharsets.US_ASCII).length;
+    }
+}
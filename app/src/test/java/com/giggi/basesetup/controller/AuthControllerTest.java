@@ -0,0 +1,76 @@
+package com.giggi.basesetup.controller;
+
+import com.giggi.basesetup.audit.AuditLogger;
+import com.giggi.basesetup.dto.request.auth.LoginRequest;
+import com.giggi.basesetup.dto.request.auth.RegisterRequest;
+import com.giggi.basesetup.service.impl.AuthServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Client errors are answered by the controller, database failures reach the
+ * concurrency limit filter.
+ */
+class AuthControllerTest {
+
+    private final AuthServiceImpl authService = mock(AuthServiceImpl.class);
+    private final AuthController controller = new AuthController(authService, mock(AuditLogger.class));
+
+    @Test
+    void badCredentialsAre401() {
+        when(authService.authenticateUser(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThat(controller.authenticateUser(login()).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void poolTimeoutDuringLoginIsRethrown() {
+        CannotGetJdbcConnectionException timeout = new CannotGetJdbcConnectionException("Failed to obtain JDBC Connection",
+                new SQLTransientConnectionException("auth-pool - Connection is not available, request timed out after 2000ms"));
+        InternalAuthenticationServiceException wrapped = new InternalAuthenticationServiceException(timeout.getMessage(), timeout);
+        when(authService.authenticateUser(any())).thenThrow(wrapped);
+
+        assertThatThrownBy(() -> controller.authenticateUser(login())).isSameAs(wrapped);
+    }
+
+    @Test
+    void transactionFailureDuringRegistrationIsRethrown() {
+        CannotCreateTransactionException failure = new CannotCreateTransactionException("Could not open JPA EntityManager");
+        when(authService.registerUser(any())).thenThrow(failure);
+
+        assertThatThrownBy(() -> controller.registerUser(registration())).isSameAs(failure);
+    }
+
+    @Test
+    void otherRegistrationFailuresAre400() {
+        when(authService.registerUser(any())).thenThrow(new IllegalArgumentException("Role is not found"));
+
+        assertThat(controller.registerUser(registration()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private static LoginRequest login() {
+        LoginRequest request = new LoginRequest();
+        request.setUsernameOrEmail("johndoe");
+        request.setPassword("password123");
+        return request;
+    }
+
+    private static RegisterRequest registration() {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername("johndoe");
+        request.setEmail("john.doe@example.com");
+        return request;
+    }
+}
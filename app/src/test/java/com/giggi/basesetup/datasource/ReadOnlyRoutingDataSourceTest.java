@@ -0,0 +1,196 @@
+package com.giggi.basesetup.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replica routing behind a real JpaTransactionManager, which asks for a connection at
+ * begin, before the read-only flag is bound. The replica is a second database on the
+ * same MySQL, told apart with {@code SELECT DATABASE()}. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReadOnlyRoutingDataSourceTest {
+
+    private static final String REPLICA_DATABASE = "replica";
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4").withUsername("root");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    private Replica replica;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeAll
+    static void createReplicaDatabase() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE IF NOT EXISTS " + REPLICA_DATABASE);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource();
+        Map<Object, Object> primaryPools = new HashMap<>(pools("primary", mysql.getJdbcUrl()));
+        routing.setTargetDataSources(primaryPools);
+        routing.setDefaultTargetDataSource(primaryPools.get(WorkloadType.BACKGROUND));
+        routing.afterPropertiesSet();
+
+        replica = new Replica("replica-0", pools("replica-0",
+                mysql.getJdbcUrl().replace("/" + mysql.getDatabaseName(), "/" + REPLICA_DATABASE)));
+        replica.probed(0, 100, true);
+
+        ReadYourWrites readYourWrites = new ReadYourWrites(true, Duration.ofSeconds(10));
+        DataSource dataSource = DataSourceConfig.lazyConnections(new ReadOnlyRoutingDataSource(
+                new WriteTrackingDataSource(routing, readYourWrites),
+                new ReplicaDataSource(List.of(replica), ReplicaBalancing.ROUND_ROBIN, routing,
+                        readYourWrites, meterRegistry)));
+
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setPackagesToScan(getClass().getPackageName());
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaPropertyMap(Map.of("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION"));
+        entityManagerFactory.afterPropertiesSet();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory.getObject());
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory.getObject());
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        WorkloadContext.restore(null);
+        ReadYourWrites.restoreSubject(null);
+        entityManagerFactory.destroy();
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void readOnlyTransactionReadsFromTheReplica() {
+        assertThat(readOnly.execute(status -> database())).isEqualTo(REPLICA_DATABASE);
+        assertThat(meterRegistry.counter("datasource.reads", "target", "replica").count()).isEqualTo(1);
+    }
+
+    @Test
+    void readWriteTransactionUsesThePrimary() {
+        assertThat(readWrite.execute(status -> database())).isEqualTo(mysql.getDatabaseName());
+    }
+
+    @Test
+    void replicaReadUsesThePoolOfItsWorkload() {
+        WorkloadContext.enter(WorkloadType.ADMIN);
+
+        assertThat(readOnly.execute(status -> database())).isEqualTo(REPLICA_DATABASE);
+
+        assertThat(replica.getPool(WorkloadType.ADMIN).getHikariPoolMXBean().getTotalConnections()).isPositive();
+        assertThat(replica.getPool(WorkloadType.AUTH).getHikariPoolMXBean()).as("auth pool started").isNull();
+    }
+
+    @Test
+    void readsStayOnThePrimaryAfterTheUsersOwnWrite() {
+        ReadYourWrites.bindSubject("johndoe");
+
+        readWrite.executeWithoutResult(status -> database());
+
+        assertThat(readOnly.execute(status -> database())).isEqualTo(mysql.getDatabaseName());
+        assertThat(meterRegistry.counter("datasource.reads", "target", "primary", "reason", "read-your-writes").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void readWriteTransactionWithoutStatementsDoesNotStickTheUser() {
+        ReadYourWrites.bindSubject("johndoe");
+
+        readWrite.executeWithoutResult(status -> {
+        });
+
+        assertThat(readOnly.execute(status -> database())).isEqualTo(REPLICA_DATABASE);
+    }
+
+    @Test
+    void transactionHoldsNoConnectionUntilItsFirstStatement() {
+        readWrite.executeWithoutResult(status -> {
+            assertThat(activeConnections()).isZero();
+            database();
+            assertThat(activeConnections()).isEqualTo(1);
+        });
+        assertThat(activeConnections()).isZero();
+    }
+
+    @Test
+    void readOnlyTransactionFallsBackToThePrimaryWithoutReplicas() {
+        replica.markUnavailable();
+
+        assertThat(readOnly.execute(status -> database())).isEqualTo(mysql.getDatabaseName());
+    }
+
+    private String database() {
+        return (String) entityManager.createNativeQuery("SELECT DATABASE()").getSingleResult();
+    }
+
+    private int activeConnections() {
+        int active = 0;
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            active += bean != null ? bean.getActiveConnections() : 0;
+        }
+        return active;
+    }
+
+    /**
+     * One pool per workload, started on first use like the replica pools of the application.
+     */
+    private Map<WorkloadType, HikariDataSource> pools(String prefix, String jdbcUrl) {
+        Map<WorkloadType, HikariDataSource> workloadPools = new EnumMap<>(WorkloadType.class);
+        for (WorkloadType workload : WorkloadType.values()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(prefix + "-" + workload.name().toLowerCase(Locale.ROOT) + "-pool");
+            pool.setJdbcUrl(jdbcUrl);
+            pool.setUsername(mysql.getUsername());
+            pool.setPassword(mysql.getPassword());
+            pool.setMaximumPoolSize(2);
+            pool.setMinimumIdle(0);
+            pools.add(pool);
+            workloadPools.put(workload, pool);
+        }
+        return workloadPools;
+    }
+}
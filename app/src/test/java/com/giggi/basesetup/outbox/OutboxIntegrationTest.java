@@ -0,0 +1,237 @@
+package com.giggi.basesetup.outbox;
+
+import com.giggi.basesetup.entity.OutboxEvent;
+import com.giggi.basesetup.entity.UtenteChangeType;
+import com.giggi.basesetup.event.UtenteChangedEvent;
+import com.giggi.basesetup.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * At-least-once delivery of the outbox on MySQL: rows written with the user change,
+ * SKIP LOCKED claiming, retry backoff and compaction. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(OutboxWriter.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class OutboxIntegrationTest {
+
+    private static final int BATCH_SIZE = 3;
+    private static final long POLL_INTERVAL_MS = 100;
+    private static final long RETENTION_HOURS = 24;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4");
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final RecordingSink sink = new RecordingSink();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM outbox_events");
+        jdbc.update("DELETE FROM utenti");
+        relay = new OutboxRelay(outboxEventRepository, List.of(sink), transactionManager, new SimpleMeterRegistry(),
+                BATCH_SIZE, POLL_INTERVAL_MS, RETENTION_HOURS, 60_000);
+    }
+
+    @Test
+    void outboxRowsCommitWithTheUserChange() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            long id = insertUser("committed");
+            eventPublisher.publishEvent(new UtenteChangedEvent(List.of(id), UtenteChangeType.CREATED, List.of(1L)));
+        });
+
+        assertThat(count("SELECT COUNT(*) FROM utenti")).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM outbox_events WHERE processed_at IS NULL")).isEqualTo(1);
+    }
+
+    @Test
+    void outboxRowsRollBackWithTheUserChange() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            long id = insertUser("rolledback");
+            eventPublisher.publishEvent(new UtenteChangedEvent(List.of(id), UtenteChangeType.CREATED, List.of(1L)));
+            status.setRollbackOnly();
+        });
+
+        assertThat(count("SELECT COUNT(*) FROM utenti")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM outbox_events")).isZero();
+    }
+
+    @Test
+    void bulkChangeWritesEachUserWithItsOwnCursor() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                eventPublisher.publishEvent(new UtenteChangedEvent(
+                        List.of(7L, 8L, 9L), UtenteChangeType.UPDATED, List.of(101L, 102L, 103L))));
+
+        assertThat(jdbc.queryForList("SELECT change_cursor FROM outbox_events ORDER BY aggregate_id", Long.class))
+                .containsExactly(101L, 102L, 103L);
+        assertThat(jdbc.queryForList("SELECT payload FROM outbox_events ORDER BY aggregate_id", String.class).get(2))
+                .contains("\"cursor\":103");
+    }
+
+    @Test
+    void outboxWriteNeedsTheCallerTransaction() {
+        assertThatThrownBy(() -> eventPublisher.publishEvent(new UtenteChangedEvent(List.of(1L), UtenteChangeType.UPDATED, List.of(1L))))
+                .isInstanceOf(IllegalTransactionStateException.class);
+        assertThat(count("SELECT COUNT(*) FROM outbox_events")).isZero();
+    }
+
+    @Test
+    void concurrentRelaysClaimDisjointBatches() throws Exception {
+        insertPending(6);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    List<Long> ids = ids(outboxEventRepository.lockPending(BATCH_SIZE));
+                    claimed.countDown();
+                    await(release);
+                    return ids;
+                }));
+        assertThat(claimed.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // The rows locked by the first transaction are skipped, not waited for
+        List<Long> second = new TransactionTemplate(transactionManager).execute(status ->
+                ids(outboxEventRepository.lockPending(10)));
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).hasSize(BATCH_SIZE);
+        assertThat(second).hasSize(3).doesNotContainAnyElementsOf(first.get());
+    }
+
+    @Test
+    void relayDeliversInIdOrderAndMarksProcessed() {
+        insertPending(4);
+
+        assertThat(relay.relayOnce()).isZero();
+        assertThat(relay.relayOnce()).isEqualTo(POLL_INTERVAL_MS);
+
+        assertThat(sink.received).extracting(OutboxMessage::aggregateId).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(count("SELECT COUNT(*) FROM outbox_events WHERE processed_at IS NULL")).isZero();
+    }
+
+    @Test
+    void failedDeliveryBacksOffAndLeavesRowsPending() {
+        insertPending(2);
+        sink.failing = true;
+
+        assertThat(relay.relayOnce()).isEqualTo(POLL_INTERVAL_MS);
+        assertThat(relay.relayOnce()).isEqualTo(2 * POLL_INTERVAL_MS);
+        assertThat(relay.relayOnce()).isEqualTo(4 * POLL_INTERVAL_MS);
+        assertThat(count("SELECT COUNT(*) FROM outbox_events WHERE processed_at IS NULL")).isEqualTo(2);
+
+        sink.failing = false;
+        assertThat(relay.relayOnce()).isEqualTo(POLL_INTERVAL_MS);
+        assertThat(sink.received).hasSize(2);
+        assertThat(count("SELECT COUNT(*) FROM outbox_events WHERE processed_at IS NULL")).isZero();
+    }
+
+    @Test
+    void compactionDeletesOnlyProcessedRowsPastRetention() {
+        LocalDateTime old = LocalDateTime.now().minusHours(RETENTION_HOURS * 2);
+        LocalDateTime recent = LocalDateTime.now().minusHours(1);
+        insert(1, old, old);
+        insert(2, old, null);
+        insert(3, recent, recent);
+
+        relay.compact();
+
+        assertThat(jdbc.queryForList("SELECT aggregate_id FROM outbox_events ORDER BY id", Long.class))
+                .containsExactly(2L, 3L);
+    }
+
+    private long insertUser(String username) {
+        jdbc.update("INSERT INTO utenti (username, email, first_name, last_name, password, enabled, "
+                + "account_non_expired, account_non_locked, credentials_non_expired, created_at, version) "
+                + "VALUES (?, ?, 'First', 'Last', 'secret', true, true, true, true, NOW(), 0)", username, username + "@example.com");
+        return jdbc.queryForObject("SELECT id FROM utenti WHERE username = ?", Long.class, username);
+    }
+
+    private void insertPending(int count) {
+        for (long i = 1; i <= count; i++) {
+            insert(i, LocalDateTime.now(), null);
+        }
+    }
+
+    private void insert(long aggregateId, LocalDateTime createdAt, LocalDateTime processedAt) {
+        jdbc.update("INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, change_cursor, payload, created_at, processed_at) "
+                        + "VALUES ('Utente', ?, 'UPDATED', ?, '{}', ?, ?)",
+                aggregateId, aggregateId, Timestamp.valueOf(createdAt), processedAt != null ? Timestamp.valueOf(processedAt) : null);
+    }
+
+    private long count(String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingSink implements OutboxSink {
+
+        private final List<OutboxMessage> received = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+
+        @Override
+        public void publish(List<OutboxMessage> batch) {
+            if (failing) {
+                throw new IllegalStateException("sink down");
+            }
+            received.addAll(batch);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.giggi.basesetup.repository;
+
+import com.giggi.basesetup.entity.AuditEventType;
+import com.giggi.basesetup.entity.RoleName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs repository queries against the Flyway schema on MySQL, reads the SQL they
+ * sent from performance_schema and fails when {@code EXPLAIN} shows a full table
+ * scan or no index for any table. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RepositoryIndexUsageTest {
+
+    private static final int USERS = 2000;
+    private static final Pattern EXPLAINABLE = Pattern.compile("(?is)^(select|update|delete)\\s.*");
+
+    private static boolean seeded;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4")
+            .withUsername("root")
+            .withCommand("--performance-schema-consumer-events-statements-history-long=ON");
+
+    @Autowired
+    private UtenteRepository utenteRepository;
+
+    @Autowired
+    private UtenteChangeRepository utenteChangeRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // The optimizer prefers a table scan on small tables, so every table gets enough rows
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        seeded = true;
+        LocalDateTime start = LocalDateTime.now().minusDays(USERS);
+        jdbc.batchUpdate("INSERT INTO utenti (username, email, first_name, last_name, password, enabled, "
+                        + "account_non_expired, account_non_locked, credentials_non_expired, created_at, version) "
+                        + "VALUES (?, ?, 'First', 'Last', 'secret', ?, true, true, true, ?, 0)",
+                IntStream.rangeClosed(1, USERS)
+                        .mapToObj(i -> new Object[]{"user" + i, "user" + i + "@example.com", i % 10 != 0, start.plusDays(i)})
+                        .toList());
+        jdbc.update("INSERT INTO user_roles (user_id, role_id) SELECT u.id, r.id FROM utenti u, roles r "
+                + "WHERE r.name = 'ROLE_USER' OR (r.name = 'ROLE_ADMIN' AND u.id % 50 = 0)");
+        jdbc.update("INSERT INTO utenti_changes (utente_id, change_type, changed_at) SELECT id, 'CREATED', created_at FROM utenti");
+        jdbc.update("INSERT INTO audit_log (event_type, success, principal, remote_address, occurred_at) "
+                + "SELECT IF(id % 4 = 0, 'SIGNUP', 'LOGIN'), true, username, '127.0.0.1', created_at FROM utenti");
+        jdbc.update("INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, change_cursor, payload, created_at, processed_at) "
+                + "SELECT 'Utente', id, 'CREATED', id, '{}', created_at, IF(id % 20 = 0, NULL, created_at) FROM utenti");
+        jdbc.execute("ANALYZE TABLE utenti, user_roles, roles, utenti_changes, audit_log, outbox_events");
+    }
+
+    @Test
+    void loginAndProfileQueriesUseIndexes() {
+        assertIndexed(() -> utenteRepository.findByUsernameOrEmail("user42"));
+        assertIndexed(() -> utenteRepository.findByUsernameOrEmail("USER42@Example.com"));
+        assertIndexed(() -> utenteRepository.findByUsername("user42"));
+        assertIndexed(() -> utenteRepository.existsByEmail("user42@example.com"));
+        assertIndexed(() -> utenteRepository.existsByUsername("user42"));
+        assertIndexed(() -> utenteRepository.findVersionById(42L));
+        assertIndexed(() -> utenteRepository.findAvatarById(42L));
+        assertIndexed(() -> utenteRepository.findReferencedAvatarHashes(List.of("0".repeat(64), "f".repeat(64))));
+        assertIndexed(() -> roleRepository.findByName(RoleName.ROLE_ADMIN.getCode()));
+    }
+
+    @Test
+    void loginIsCaseInsensitive() {
+        assertThat(utenteRepository.findByUsernameOrEmail("USER42@Example.com")).isPresent();
+        assertThat(utenteRepository.existsByUsername("User42")).isTrue();
+    }
+
+    @Test
+    void syncAndSearchQueriesUseIndexes() {
+        assertIndexed(() -> utenteRepository.fingerprint());
+        assertIndexed(() -> utenteRepository.findSearchRowsAfter(500, PageRequest.of(0, 100)));
+        assertIndexed(() -> utenteRepository.findSearchRowsByIds(List.of(3L, 14L, 159L)));
+        assertIndexed(() -> utenteRepository.findPageOfIds(PageRequest.of(2, 20, Sort.by("id"))));
+        assertIndexed(() -> utenteChangeRepository.findChangesAfter(500, PageRequest.of(0, 100)));
+        assertIndexed(() -> auditLogRepository.search(AuditEventType.SIGNUP, null,
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id"))));
+        assertIndexed(() -> auditLogRepository.search(null, "user42",
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id"))));
+    }
+
+    @Test
+    void bulkQueriesUseIndexes() {
+        List<Long> ids = List.of(100L, 101L, 102L, 150L);
+        LocalDateTime midpoint = LocalDateTime.now().minusDays(USERS / 2);
+        assertIndexed(() -> utenteRepository.findIdsAfter(0, new UtenteBulkFilter(null, null, midpoint.minusDays(100), null, null), 500));
+        assertIndexed(() -> utenteRepository.findIdsAfter(0, new UtenteBulkFilter(null, null, null, midpoint, null), 500));
+        assertIndexed(() -> utenteRepository.findIdsAfter(0, new UtenteBulkFilter(false, RoleName.ROLE_ADMIN.getCode(), null, null, null), 500));
+        assertIndexed(() -> utenteRepository.lockExisting(ids));
+        assertIndexed(() -> utenteRepository.lockEnabled(ids));
+        assertIndexed(() -> utenteRepository.lockWithoutRole(ids, 2L));
+        assertIndexed(() -> utenteRepository.disableAll(ids, LocalDateTime.now()));
+        assertIndexed(() -> utenteRepository.touchAll(ids, LocalDateTime.now()));
+        assertIndexed(() -> utenteRepository.deleteRolesOfAll(ids));
+    }
+
+    @Test
+    void outboxQueriesUseIndexes() {
+        assertIndexed(() -> outboxEventRepository.lockPending(100));
+        assertIndexed(() -> outboxEventRepository.markProcessed(List.of(20L, 40L), LocalDateTime.now()));
+        assertIndexed(() -> outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minusDays(USERS - 10), 1000));
+    }
+
+    /**
+     * Runs the call in a rolled back transaction, then explains every SELECT, UPDATE
+     * and DELETE it sent; derived tables ({@code <subquery2>} and similar) are skipped.
+     */
+    private void assertIndexed(Runnable call) {
+        jdbc.execute("TRUNCATE TABLE performance_schema.events_statements_history_long");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            call.run();
+            status.setRollbackOnly();
+        });
+
+        List<String> statements = jdbc.queryForList("SELECT SQL_TEXT FROM performance_schema.events_statements_history_long "
+                        + "WHERE CURRENT_SCHEMA = DATABASE() ORDER BY THREAD_ID, EVENT_ID", String.class).stream()
+                .filter(sql -> sql != null && EXPLAINABLE.matcher(sql).matches() && !sql.contains("performance_schema"))
+                .toList();
+        assertThat(statements).as("statements sent by the repository").isNotEmpty();
+
+        for (String sql : statements) {
+            for (Map<String, Object> row : jdbc.queryForList("EXPLAIN " + sql)) {
+                Object table = row.get("table");
+                if (table == null || table.toString().startsWith("<")) {
+                    continue;
+                }
+                assertThat(row.get("type")).as("access type of %s in: %s", table, sql).isNotEqualTo("ALL");
+                assertThat(row.get("key")).as("index used for %s in: %s", table, sql).isNotNull();
+            }
+        }
+    }
+}
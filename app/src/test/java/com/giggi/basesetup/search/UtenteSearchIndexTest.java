@@ -0,0 +1,98 @@
+package com.giggi.basesetup.search;
+
+import com.giggi.basesetup.repository.projection.UtenteSearchRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UtenteSearchIndexTest {
+
+    private final UtenteSearchIndex index = new UtenteSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.put(row(1, 0, "mrossi", "mario.rossi@example.com", "Mario", "Rossi"));
+        index.put(row(2, 0, "lbianchi", "luca.bianchi@example.com", "Luca", "Bianchi"));
+        index.put(row(3, 0, "gverdi", "giulia@example.com", "Giulia", "Verdì"));
+        index.put(row(4, 0, "plucarelli", "paolo@example.com", "Paolo", "Lucarelli"));
+    }
+
+    @Test
+    void prefixRanksExactTermsFirst() {
+        assertThat(search("luca", SearchMode.PREFIX).ids()).containsExactly(2L, 4L);
+        assertThat(search("ros", SearchMode.PREFIX).ids()).containsExactly(1L);
+        assertThat(search("ssi", SearchMode.PREFIX).total()).isZero();
+    }
+
+    @Test
+    void substringMatchesInsideFieldValues() {
+        assertThat(search("ssi", SearchMode.SUBSTRING).ids()).containsExactly(1L);
+        assertThat(search("carel", SearchMode.SUBSTRING).ids()).containsExactly(4L);
+        assertThat(search("rosis", SearchMode.SUBSTRING).total()).isZero();
+    }
+
+    @Test
+    void fuzzyToleratesTyposAndTranspositions() {
+        assertThat(search("rosis", SearchMode.FUZZY).ids()).containsExactly(1L);
+        assertThat(search("bianci", SearchMode.FUZZY).ids()).containsExactly(2L);
+        assertThat(search("xyzzy", SearchMode.FUZZY).total()).isZero();
+    }
+
+    @Test
+    void accentsAndCaseAreIgnored() {
+        assertThat(search("VERDI", SearchMode.PREFIX).ids()).containsExactly(3L);
+        assertThat(search("verdì", SearchMode.PREFIX).ids()).containsExactly(3L);
+    }
+
+    @Test
+    void everyWordOfTheQueryMustMatch() {
+        assertThat(search("mario rossi", SearchMode.PREFIX).ids()).containsExactly(1L);
+        assertThat(search("mario bianchi", SearchMode.PREFIX).total()).isZero();
+    }
+
+    @Test
+    void resultsArePagedWithTheTotal() {
+        UtenteSearchHits hits = index.search("example", SearchMode.PREFIX, 1, 2);
+
+        assertThat(hits.ids()).containsExactly(2L, 3L);
+        assertThat(hits.total()).isEqualTo(4);
+    }
+
+    @Test
+    void removedUserIsNoLongerFound() {
+        index.remove(1L);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(search("rossi", SearchMode.PREFIX).total()).isZero();
+        assertThat(search("ssi", SearchMode.SUBSTRING).total()).isZero();
+        assertThat(search("rosis", SearchMode.FUZZY).total()).isZero();
+    }
+
+    @Test
+    void updateReplacesTheOldTerms() {
+        index.put(row(2, 1, "lneri", "luca.neri@example.com", "Luca", "Neri"));
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(search("bianchi", SearchMode.FUZZY).total()).isZero();
+        assertThat(search("neri", SearchMode.PREFIX).ids()).containsExactly(2L);
+    }
+
+    @Test
+    void olderVersionIsIgnored() {
+        index.put(row(2, 2, "lneri", "luca.neri@example.com", "Luca", "Neri"));
+        index.put(row(2, 1, "lbianchi", "luca.bianchi@example.com", "Luca", "Bianchi"));
+
+        assertThat(search("neri", SearchMode.PREFIX).ids()).containsExactly(2L);
+        assertThat(search("bianchi", SearchMode.PREFIX).total()).isZero();
+    }
+
+    private UtenteSearchHits search(String query, SearchMode mode) {
+        return index.search(query, mode, 0, 10);
+    }
+
+    private static UtenteSearchRow row(long id, long version, String username, String email,
+                                       String firstName, String lastName) {
+        return new UtenteSearchRow(id, version, username, email, firstName, lastName);
+    }
+}
@@ -0,0 +1,104 @@
+package com.giggi.basesetup.search;
+
+import com.giggi.basesetup.dto.response.utente.UtenteChangeDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteChangesDTO;
+import com.giggi.basesetup.entity.UtenteChangeType;
+import com.giggi.basesetup.repository.UtenteRepository;
+import com.giggi.basesetup.repository.projection.UtenteSearchRow;
+import com.giggi.basesetup.service.UtenteChangeService;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rebuild and change-log tailing of the indexer, against a real index.
+ */
+class UtenteSearchIndexerTest {
+
+    private static final long POLL_INTERVAL_MS = 1000;
+
+    private final UtenteSearchIndex index = new UtenteSearchIndex();
+    private final UtenteRepository utenteRepository = mock(UtenteRepository.class);
+    private final UtenteChangeService changeService = mock(UtenteChangeService.class);
+    private final UtenteSearchIndexer indexer = new UtenteSearchIndexer(index, utenteRepository, changeService,
+            POLL_INTERVAL_MS, 500);
+
+    @Test
+    void firstPollBuildsTheIndexFromTheCursorTakenBeforeIt() {
+        when(changeService.latestCursor()).thenReturn(5L);
+        when(utenteRepository.findSearchRowsAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(row(1, "mrossi"), row(2, "lbianchi")));
+
+        assertThat(indexer.pollOnce()).isZero();
+        assertThat(index.size()).isEqualTo(2);
+
+        when(changeService.changesSince(5, 500)).thenReturn(new UtenteChangesDTO(List.of(), 5, false));
+        assertThat(indexer.pollOnce()).isEqualTo(POLL_INTERVAL_MS);
+
+        InOrder order = inOrder(changeService, utenteRepository);
+        order.verify(changeService).latestCursor();
+        order.verify(utenteRepository).findSearchRowsAfter(eq(0L), any(Pageable.class));
+        order.verify(changeService).changesSince(5, 500);
+    }
+
+    @Test
+    void changesOfAnyInstanceAreAppliedFromTheLog() {
+        when(changeService.latestCursor()).thenReturn(0L);
+        when(utenteRepository.findSearchRowsAfter(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(row(1, "mrossi"), row(2, "lbianchi")));
+        indexer.pollOnce();
+
+        when(changeService.changesSince(0, 500)).thenReturn(new UtenteChangesDTO(List.of(
+                change(1, 1, UtenteChangeType.DELETED),
+                change(2, 2, UtenteChangeType.UPDATED),
+                change(3, 3, UtenteChangeType.CREATED)), 3, true));
+        when(utenteRepository.findSearchRowsByIds(List.of(2L, 3L)))
+                .thenReturn(List.of(new UtenteSearchRow(2L, 1L, "lneri", null, null, null), row(3, "gverdi")));
+
+        assertThat(indexer.pollOnce()).as("more pages").isZero();
+
+        assertThat(index.search("mrossi", SearchMode.PREFIX, 0, 10).total()).isZero();
+        assertThat(index.search("lbianchi", SearchMode.PREFIX, 0, 10).total()).isZero();
+        assertThat(index.search("lneri", SearchMode.PREFIX, 0, 10).ids()).containsExactly(2L);
+        assertThat(index.search("gverdi", SearchMode.PREFIX, 0, 10).ids()).containsExactly(3L);
+
+        when(changeService.changesSince(3, 500)).thenReturn(new UtenteChangesDTO(List.of(), 3, false));
+        indexer.pollOnce();
+        verify(changeService).changesSince(3, 500);
+    }
+
+    @Test
+    void failedRebuildIsRetriedOnTheNextPoll() {
+        when(changeService.latestCursor()).thenReturn(0L);
+        when(utenteRepository.findSearchRowsAfter(anyLong(), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of(row(1, "mrossi")));
+
+        assertThat(indexer.pollOnce()).isEqualTo(POLL_INTERVAL_MS);
+        assertThat(indexer.pollOnce()).isZero();
+
+        assertThat(index.size()).isEqualTo(1);
+        verify(changeService, never()).changesSince(anyLong(), eq(500));
+    }
+
+    private static UtenteSearchRow row(long id, String username) {
+        return new UtenteSearchRow(id, 0L, username, username + "@example.com", null, null);
+    }
+
+    private static UtenteChangeDTO change(long cursor, long id, UtenteChangeType type) {
+        return new UtenteChangeDTO(cursor, id, type, LocalDateTime.now(), null);
+    }
+}
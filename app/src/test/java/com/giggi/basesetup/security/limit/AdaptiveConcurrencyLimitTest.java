@@ -0,0 +1,200 @@
+package com.giggi.basesetup.security.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Limit arithmetic without threads: slots held with {@link #fill} keep the limit in
+ * use, so samples fed through {@link #sample} pass the under-utilisation guard.
+ */
+class AdaptiveConcurrencyLimitTest {
+
+    private static final double TOLERANCE = 2.0;
+    private static final double BACKOFF = 0.9;
+
+    @Test
+    void initialLimitIsClamped() {
+        assertThat(new AdaptiveConcurrencyLimit(500, 10, 200, TOLERANCE, BACKOFF).getLimit()).isEqualTo(200);
+        assertThat(new AdaptiveConcurrencyLimit(1, 10, 200, TOLERANCE, BACKOFF).getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void steadyLatencyGrowsTheLimitUpToMax() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 10, 60, TOLERANCE, BACKOFF);
+        fill(limit);
+
+        sample(limit, RequestPriority.DEFAULT, 10, 5);
+        int grown = limit.getLimit();
+        assertThat(grown).isGreaterThan(20);
+
+        sample(limit, RequestPriority.DEFAULT, 10, 200);
+        assertThat(limit.getLimit()).isEqualTo(60);
+    }
+
+    @Test
+    void underUsedLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 10, 60, TOLERANCE, BACKOFF);
+
+        // One request at a time: far below half of the limit
+        for (int i = 0; i < 200; i++) {
+            assertThat(limit.tryAcquire(RequestPriority.DEFAULT)).isTrue();
+            limit.release(RequestPriority.DEFAULT, millis(10), false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void risingLatencyShrinksTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 100, TOLERANCE, BACKOFF);
+        fill(limit);
+        sample(limit, RequestPriority.DEFAULT, 10, 200);
+        assertThat(limit.getLimit()).isEqualTo(100);
+
+        sample(limit, RequestPriority.DEFAULT, 100, 30);
+
+        assertThat(limit.getLimit()).isLessThan(100).isGreaterThanOrEqualTo(10);
+    }
+
+    @Test
+    void latencyWithinToleranceKeepsGrowing() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 10, 100, TOLERANCE, BACKOFF);
+        fill(limit);
+        sample(limit, RequestPriority.DEFAULT, 10, 50);
+        int before = limit.getLimit();
+
+        // 1.5x the baseline is inside a tolerance of 2
+        sample(limit, RequestPriority.DEFAULT, 15, 10);
+
+        assertThat(limit.getLimit()).isGreaterThan(before);
+    }
+
+    @Test
+    void gradientShrinksByAtMostHalfPerSample() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 100, TOLERANCE, BACKOFF);
+        fill(limit);
+        sample(limit, RequestPriority.DEFAULT, 1, 200);
+
+        // Gradient clamped to 0.5: limit * 0.8 + (limit * 0.5 + sqrt(limit)) * 0.2 = 92
+        sample(limit, RequestPriority.DEFAULT, 1_000_000, 1);
+
+        assertThat(limit.getLimit()).isEqualTo(92);
+    }
+
+    @Test
+    void limitNeverShrinksBelowMin() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 10, 20, TOLERANCE, BACKOFF);
+        fill(limit);
+        sample(limit, RequestPriority.DEFAULT, 1, 50);
+
+        sample(limit, RequestPriority.DEFAULT, 1_000, 30);
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void dropBacksOffMultiplicatively() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 200, TOLERANCE, BACKOFF);
+
+        assertThat(limit.tryAcquire(RequestPriority.DEFAULT)).isTrue();
+        limit.release(RequestPriority.DEFAULT, millis(5_000), true);
+        assertThat(limit.getLimit()).isEqualTo(90);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limit.tryAcquire(RequestPriority.DEFAULT)).isTrue();
+            limit.release(RequestPriority.DEFAULT, millis(5_000), true);
+        }
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void slowLoginsAmongFastReadsAreNotOverload() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 100, TOLERANCE, BACKOFF);
+        fill(limit);
+        sample(limit, RequestPriority.DEFAULT, 5, 200);
+
+        // bcrypt logins at 60x the latency of reads, interleaved with them
+        for (int i = 0; i < 100; i++) {
+            sample(limit, RequestPriority.LOGIN, 300, 1);
+            sample(limit, RequestPriority.DEFAULT, 5, 1);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(100);
+    }
+
+    @Test
+    void slowerLoginsThanUsualStillShrinkTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 100, TOLERANCE, BACKOFF);
+        fill(limit);
+        sample(limit, RequestPriority.LOGIN, 300, 200);
+
+        sample(limit, RequestPriority.LOGIN, 3_000, 30);
+
+        assertThat(limit.getLimit()).isLessThan(100);
+    }
+
+    @Test
+    void eachPriorityFillsOnlyItsShare() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 100, TOLERANCE, BACKOFF);
+
+        assertThat(acquireAll(limit, RequestPriority.ADMIN_LISTING)).isEqualTo(50);
+        assertThat(acquireAll(limit, RequestPriority.DEFAULT)).isEqualTo(30);
+        assertThat(acquireAll(limit, RequestPriority.LOGIN)).isEqualTo(10);
+        assertThat(acquireAll(limit, RequestPriority.CRITICAL)).isEqualTo(10);
+        assertThat(limit.getInFlight()).isEqualTo(100);
+    }
+
+    @Test
+    void everyPriorityGetsAtLeastOneSlot() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 10, TOLERANCE, BACKOFF);
+
+        assertThat(limit.tryAcquire(RequestPriority.ADMIN_LISTING)).isTrue();
+        assertThat(limit.tryAcquire(RequestPriority.CRITICAL)).isFalse();
+    }
+
+    @Test
+    void lowerPrioritiesAreShedFirstAsTheLimitShrinks() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 100, TOLERANCE, BACKOFF);
+        assertThat(acquireAll(limit, RequestPriority.DEFAULT)).isEqualTo(80);
+
+        limit.release(RequestPriority.DEFAULT, millis(5_000), true);
+
+        // 79 in flight against a limit of 90: admin listings (45) are refused, logins (81) are not
+        assertThat(limit.tryAcquire(RequestPriority.ADMIN_LISTING)).isFalse();
+        assertThat(limit.tryAcquire(RequestPriority.LOGIN)).isTrue();
+    }
+
+    /**
+     * Hold every slot the limit allows.
+     */
+    private static void fill(AdaptiveConcurrencyLimit limit) {
+        acquireAll(limit, RequestPriority.CRITICAL);
+    }
+
+    private static int acquireAll(AdaptiveConcurrencyLimit limit, RequestPriority priority) {
+        int acquired = 0;
+        while (limit.tryAcquire(priority)) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    /**
+     * Complete {@code count} held requests at the given latency, taking the slot again
+     * when the limit still allows it, so the limit stays in use.
+     */
+    private static void sample(AdaptiveConcurrencyLimit limit, RequestPriority priority, long latencyMillis, int count) {
+        for (int i = 0; i < count; i++) {
+            limit.release(priority, millis(latencyMillis), false);
+            fill(limit);
+        }
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,101 @@
+package com.giggi.basesetup.security.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void requestOverTheLimitGets503WithRetryAfter() throws Exception {
+        ConcurrencyLimitFilter filter = filter(1);
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        // The second request arrives while the first holds the only slot
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(request(), admitted, (request, response) ->
+                filter.doFilter(request(), rejected, (r, s) -> {
+                    throw new AssertionError("request over the limit reached the chain");
+                }));
+
+        assertThat(admitted.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(rejected.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(rejected.getContentAsString()).contains("Server busy");
+        assertThat(meterRegistry.counter("http.concurrency.rejected", "priority", "DEFAULT").count()).isEqualTo(1);
+        assertThat(gauge("http.concurrency.inflight")).isZero();
+    }
+
+    @Test
+    void connectionTimeoutIsADrop() {
+        ConcurrencyLimitFilter filter = filter(100);
+        CannotGetJdbcConnectionException timeout = new CannotGetJdbcConnectionException("Failed to obtain JDBC Connection",
+                new SQLTransientConnectionException("auth-pool - Connection is not available, request timed out after 2000ms"));
+
+        assertThatThrownBy(() -> filter.doFilter(request(), new MockHttpServletResponse(), (request, response) -> {
+            throw new ServletException("Request processing failed", timeout);
+        })).isInstanceOf(ServletException.class);
+
+        assertThat(gauge("http.concurrency.limit")).isEqualTo(50);
+    }
+
+    @Test
+    void resolvedOverloadExceptionIsADrop() throws Exception {
+        ConcurrencyLimitFilter filter = filter(100);
+
+        filter.doFilter(request(), new MockHttpServletResponse(), (request, response) -> {
+            request.setAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE,
+                    new SQLTransientConnectionException("Connection is not available"));
+            ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        });
+
+        assertThat(gauge("http.concurrency.limit")).isEqualTo(50);
+    }
+
+    @Test
+    void otherServerErrorsAreNotDrops() throws Exception {
+        ConcurrencyLimitFilter filter = filter(100);
+
+        filter.doFilter(request(), new MockHttpServletResponse(), (request, response) ->
+                ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR));
+        assertThatThrownBy(() -> filter.doFilter(request(), new MockHttpServletResponse(), (request, response) -> {
+            throw new ServletException("Request processing failed", new NullPointerException());
+        })).isInstanceOf(ServletException.class);
+
+        assertThat(gauge("http.concurrency.limit")).isEqualTo(100);
+    }
+
+    @Test
+    void overloadIsFoundAnywhereInTheCauseChain() {
+        assertThat(ConcurrencyLimitFilter.isOverload(new IllegalStateException(
+                new RuntimeException(new SQLTimeoutException("Statement cancelled due to timeout"))))).isTrue();
+        assertThat(ConcurrencyLimitFilter.isOverload(new IllegalStateException("bug"))).isFalse();
+        assertThat(ConcurrencyLimitFilter.isOverload(null)).isFalse();
+    }
+
+    private ConcurrencyLimitFilter filter(int limit) {
+        return new ConcurrencyLimitFilter(meterRegistry, true, limit, 1, limit, 2.0, 0.5, 3);
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/utenti/1");
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
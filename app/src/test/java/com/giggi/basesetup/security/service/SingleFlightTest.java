@@ -0,0 +1,172 @@
+package com.giggi.basesetup.security.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Coalescing of concurrent loads, the timeout fallback, failure propagation and key
+ * release. Followers are known to be waiting once the {@code coalesced} counter reaches them.
+ */
+class SingleFlightTest {
+
+    private static final int FOLLOWERS = 4;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofSeconds(10), meterRegistry);
+
+        Future<String> leader = executor.submit(() -> flight.load("johndoe", blockingLoader("loaded")));
+        await(leaderStarted);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(executor.submit(() -> flight.load("johndoe", blockingLoader("repeated"))));
+        }
+        awaitCount("coalesced", FOLLOWERS);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(count("leader")).isEqualTo(1);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void differentKeysLoadIndependently() {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofSeconds(10), meterRegistry);
+
+        assertThat(flight.load("a", () -> "a:" + loads.incrementAndGet())).isEqualTo("a:1");
+        assertThat(flight.load("b", () -> "b:" + loads.incrementAndGet())).isEqualTo("b:2");
+        assertThat(count("coalesced")).isZero();
+    }
+
+    @Test
+    void waiterLoadsDirectlyAfterTheTimeout() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofMillis(50), meterRegistry);
+
+        Future<String> leader = executor.submit(() -> flight.load("johndoe", blockingLoader("slow")));
+        await(leaderStarted);
+
+        String direct = flight.load("johndoe", () -> "direct:" + loads.incrementAndGet());
+
+        assertThat(direct).isEqualTo("direct:2");
+        assertThat(count("timeout")).isEqualTo(1);
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+    }
+
+    @Test
+    void failureReachesEveryWaiter() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofSeconds(10), meterRegistry);
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        Future<String> leader = executor.submit(() -> flight.load("johndoe", () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            throw failure;
+        }));
+        await(leaderStarted);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(executor.submit(() -> flight.load("johndoe", blockingLoader("repeated"))));
+        }
+        awaitCount("coalesced", FOLLOWERS);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCause(failure);
+        for (Future<String> follower : followers) {
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().isSameAs(failure);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void keyIsReleasedAfterTheLoadSoTheNextCallReloads() {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofSeconds(10), meterRegistry);
+
+        assertThat(flight.load("johndoe", () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(flight.load("johndoe", () -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+
+        assertThatThrownBy(() -> flight.load("johndoe", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(flight.load("johndoe", () -> "v" + loads.incrementAndGet())).isEqualTo("v3");
+
+        assertThat(count("leader")).isEqualTo(4);
+        assertThat(count("coalesced")).isZero();
+        assertThat(inFlight()).isZero();
+    }
+
+    /**
+     * Loader that counts itself, signals the start and blocks until released.
+     */
+    private Supplier<String> blockingLoader(String value) {
+        return () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return value;
+        };
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("singleflight.calls", "name", "test", "outcome", outcome).count();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("singleflight.inflight").tag("name", "test").gauge().value();
+    }
+
+    private void awaitCount(String outcome, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(outcome) < expected) {
+            assertThat(System.nanoTime()).as("%s calls", outcome).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.giggi.basesetup.security.service;
+
+import com.giggi.basesetup.entity.Utente;
+import com.giggi.basesetup.repository.UtenteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Coalesced lookups hold no transaction, and so no connection, while they wait: only
+ * the leader begins one. Transactions are counted by a transaction manager that
+ * begins nothing; the leader blocks inside its query until released.
+ */
+class UserLoaderTest {
+
+    private static final int FOLLOWERS = 4;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountingTransactionManager transactionManager = new CountingTransactionManager();
+    private final UtenteRepository userRepository = mock(UtenteRepository.class);
+    private final UserLoader userLoader = new UserLoader(userRepository, transactionManager, meterRegistry, 10_000);
+    private final CountDownLatch queryStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void waitersHoldNoTransactionWhileTheLeaderQueries() throws Exception {
+        when(userRepository.findByUsernameOrEmail(anyString())).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            await(release);
+            return Optional.of(user());
+        });
+
+        Future<UserDetailsImpl> leader = executor.submit(() -> userLoader.findByUsernameOrEmail("johndoe"));
+        await(queryStarted);
+        List<Future<UserDetailsImpl>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(executor.submit(() -> userLoader.findByUsernameOrEmail("johndoe")));
+        }
+        awaitCoalesced(FOLLOWERS);
+
+        assertThat(transactionManager.open).hasValue(1);
+        release.countDown();
+
+        UserDetailsImpl loaded = leader.get(5, TimeUnit.SECONDS);
+        for (Future<UserDetailsImpl> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(loaded);
+        }
+        assertThat(transactionManager.begun).hasValue(1);
+        assertThat(transactionManager.open).hasValue(0);
+        verify(userRepository, times(1)).findByUsernameOrEmail("johndoe");
+    }
+
+    @Test
+    void lookupRunsInAReadOnlyTransaction() {
+        when(userRepository.findByUsername("johndoe")).thenReturn(Optional.of(user()));
+
+        assertThat(userLoader.findByUsername("johndoe").getUsername()).isEqualTo("johndoe");
+
+        assertThat(transactionManager.readOnly).hasValue(1);
+        assertThat(transactionManager.open).hasValue(0);
+    }
+
+    @Test
+    void unknownUserIsNull() {
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        assertThat(userLoader.findByUsername("nobody")).isNull();
+        assertThat(transactionManager.open).hasValue(0);
+    }
+
+    private static Utente user() {
+        Utente user = new Utente();
+        user.setId(1L);
+        user.setUsername("johndoe");
+        user.setEmail("johndoe@example.com");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setPassword("secret");
+        return user;
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("singleflight.calls", "name", "user.login", "outcome", "coalesced").count() < expected) {
+            assertThat(System.nanoTime()).as("coalesced calls").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Counts begun and still open transactions; with begin-time acquisition each open
+     * transaction would hold a connection.
+     */
+    private static final class CountingTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final AtomicInteger begun = new AtomicInteger();
+        private final AtomicInteger open = new AtomicInteger();
+        private final AtomicInteger readOnly = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            begun.incrementAndGet();
+            open.incrementAndGet();
+            if (definition.isReadOnly()) {
+                readOnly.incrementAndGet();
+            }
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            open.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.giggi.basesetup.service.impl;
+
+import com.giggi.basesetup.dto.request.utente.UtenteBulkRequestDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteBulkChunkDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteBulkResultDTO;
+import com.giggi.basesetup.entity.RoleName;
+import com.giggi.basesetup.mapper.UtenteMapper;
+import com.giggi.basesetup.outbox.OutboxWriter;
+import com.giggi.basesetup.repository.RoleRepository;
+import com.giggi.basesetup.repository.UtenteRepository;
+import com.giggi.basesetup.service.UtenteChangeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk operations on MySQL: chunking and the per-request cap, row locks, and one
+ * change-log cursor per user shared with its outbox row. Chunks of {@value #CHUNK_SIZE}.
+ * Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UtenteChangeServiceImpl.class, OutboxWriter.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class UtenteBulkServiceIntegrationTest {
+
+    private static final int CHUNK_SIZE = 3;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4");
+
+    @MockitoBean
+    private UtenteMapper utenteMapper;
+
+    @Autowired
+    private UtenteRepository utenteRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UtenteChangeService changeService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM outbox_events");
+        jdbc.update("DELETE FROM utenti_changes");
+        jdbc.update("DELETE FROM user_roles");
+        jdbc.update("DELETE FROM utenti");
+    }
+
+    @Test
+    void filterIsProcessedInChunksOfAscendingIds() {
+        List<Long> ids = insertUsers(7);
+        disableUser(ids.get(1));
+
+        UtenteBulkResultDTO result = bulk(100).disable(enabled());
+
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.isHasMore()).isFalse();
+        assertThat(result.getCandidates()).isEqualTo(6);
+        assertThat(result.getAffected()).isEqualTo(6);
+        assertThat(result.getProgress()).extracting(UtenteBulkChunkDTO::getCandidates).containsExactly(3, 3);
+        assertThat(result.getProgress().get(0).getFirstId()).isEqualTo(ids.get(0));
+        assertThat(result.getProgress().get(1).getLastId()).isEqualTo(ids.get(6));
+        assertThat(count("SELECT COUNT(*) FROM utenti WHERE enabled = true")).isZero();
+    }
+
+    @Test
+    void runStopsAtMaxUsersAndReportsMore() {
+        insertUsers(7);
+
+        UtenteBulkResultDTO result = bulk(5).disable(enabled());
+
+        assertThat(result.getCandidates()).isEqualTo(5);
+        assertThat(result.isHasMore()).isTrue();
+        assertThat(result.getProgress()).extracting(UtenteBulkChunkDTO::getCandidates).containsExactly(3, 2);
+        assertThat(count("SELECT COUNT(*) FROM utenti WHERE enabled = true")).isEqualTo(2);
+    }
+
+    @Test
+    void onlyUsersTheOperationChangesAreLockedAndRecorded() {
+        List<Long> ids = insertUsers(3);
+        disableUser(ids.get(0));
+
+        UtenteBulkResultDTO result = bulk(100).disable(explicit(ids));
+
+        assertThat(result.getCandidates()).isEqualTo(3);
+        assertThat(result.getAffected()).isEqualTo(2);
+        assertThat(jdbc.queryForList("SELECT utente_id FROM utenti_changes ORDER BY id", Long.class))
+                .containsExactly(ids.get(1), ids.get(2));
+    }
+
+    @Test
+    void chunkWaitsForARowLockedByAnotherTransaction() throws Exception {
+        List<Long> ids = insertUsers(2);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    jdbc.queryForList("SELECT id FROM utenti WHERE id = ? FOR UPDATE", Long.class, ids.get(1));
+                    locked.countDown();
+                    await(release);
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<UtenteBulkResultDTO> run = CompletableFuture.supplyAsync(() -> bulk(100).delete(explicit(ids)));
+        Thread.sleep(300);
+        assertThat(run).isNotDone();
+        assertThat(count("SELECT COUNT(*) FROM utenti")).isEqualTo(2);
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        assertThat(run.get(10, TimeUnit.SECONDS).getAffected()).isEqualTo(2);
+        assertThat(count("SELECT COUNT(*) FROM utenti")).isZero();
+    }
+
+    @Test
+    void eachDeletedUserGetsItsOwnTombstoneAndCursor() {
+        List<Long> ids = insertUsers(4);
+        grantUserRole(ids);
+
+        UtenteBulkResultDTO result = bulk(100).delete(explicit(ids));
+
+        assertThat(result.getAffected()).isEqualTo(4);
+        assertThat(count("SELECT COUNT(*) FROM utenti")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM user_roles")).isZero();
+        assertThat(jdbc.queryForList("SELECT utente_id FROM utenti_changes WHERE change_type = 'DELETED' ORDER BY id",
+                Long.class)).containsExactlyElementsOf(ids);
+        // The outbox row of each user carries that user's change-log id
+        assertThat(count("SELECT COUNT(*) FROM outbox_events o JOIN utenti_changes c "
+                + "ON c.id = o.change_cursor AND c.utente_id = o.aggregate_id")).isEqualTo(4);
+        assertThat(count("SELECT COUNT(DISTINCT change_cursor) FROM outbox_events")).isEqualTo(4);
+    }
+
+    @Test
+    void grantedRoleBumpsTheVersion() {
+        List<Long> ids = insertUsers(2);
+
+        UtenteBulkResultDTO result = bulk(100).grantRole(explicit(ids), RoleName.ROLE_MODERATOR);
+
+        assertThat(result.getAffected()).isEqualTo(2);
+        assertThat(count("SELECT COUNT(*) FROM user_roles")).isEqualTo(2);
+        assertThat(count("SELECT SUM(version) FROM utenti")).isEqualTo(2);
+        assertThat(bulk(100).grantRole(explicit(ids), RoleName.ROLE_MODERATOR).getAffected()).isZero();
+    }
+
+    private UtenteBulkServiceImpl bulk(int maxUsers) {
+        return new UtenteBulkServiceImpl(utenteRepository, roleRepository, changeService, transactionManager,
+                CHUNK_SIZE, maxUsers, 10);
+    }
+
+    private static UtenteBulkRequestDTO enabled() {
+        UtenteBulkRequestDTO request = new UtenteBulkRequestDTO();
+        request.setEnabled(true);
+        return request;
+    }
+
+    private static UtenteBulkRequestDTO explicit(List<Long> ids) {
+        UtenteBulkRequestDTO request = new UtenteBulkRequestDTO();
+        request.setIds(ids);
+        return request;
+    }
+
+    private List<Long> insertUsers(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String username = "bulk" + i;
+            jdbc.update("INSERT INTO utenti (username, email, first_name, last_name, password, enabled, "
+                    + "account_non_expired, account_non_locked, credentials_non_expired, created_at, version) "
+                    + "VALUES (?, ?, 'First', 'Last', 'secret', true, true, true, true, NOW(), 0)", username, username + "@example.com");
+            ids.add(jdbc.queryForObject("SELECT id FROM utenti WHERE username = ?", Long.class, username));
+        }
+        return ids;
+    }
+
+    private void disableUser(long id) {
+        jdbc.update("UPDATE utenti SET enabled = false WHERE id = ?", id);
+    }
+
+    private void grantUserRole(List<Long> ids) {
+        for (Long id : ids) {
+            jdbc.update("INSERT INTO user_roles (user_id, role_id) SELECT ?, id FROM roles WHERE name = 'ROLE_USER'", id);
+        }
+    }
+
+    private long count(String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
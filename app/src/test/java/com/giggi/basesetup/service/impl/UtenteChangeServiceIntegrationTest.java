@@ -0,0 +1,134 @@
+package com.giggi.basesetup.service.impl;
+
+import com.giggi.basesetup.dto.response.utente.UtenteChangeDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteChangesDTO;
+import com.giggi.basesetup.entity.UtenteChangeType;
+import com.giggi.basesetup.mapper.UtenteMapper;
+import com.giggi.basesetup.outbox.OutboxWriter;
+import com.giggi.basesetup.service.UtenteChangeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Change-log cursors on MySQL: assigned at commit, so a transaction that started
+ * first but commits last is not skipped by a reader. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UtenteChangeServiceImpl.class, OutboxWriter.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class UtenteChangeServiceIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4");
+
+    @MockitoBean
+    private UtenteMapper utenteMapper;
+
+    @Autowired
+    private UtenteChangeService changeService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM outbox_events");
+        jdbc.update("DELETE FROM utenti_changes");
+    }
+
+    @Test
+    void changeCommittedLaterIsNotSkipped() throws Exception {
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Records first, commits last: with cursors taken at record time it would get
+        // the lower cursor and a reader that saw the second change would skip it
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    changeService.record(1L, UtenteChangeType.UPDATED);
+                    recorded.countDown();
+                    await(release);
+                }));
+        assertThat(recorded.await(10, TimeUnit.SECONDS)).isTrue();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                changeService.record(2L, UtenteChangeType.UPDATED));
+        UtenteChangesDTO first = changeService.changesSince(0, 10);
+        assertThat(first.getChanges()).extracting(UtenteChangeDTO::getId).containsExactly(2L);
+
+        release.countDown();
+        slow.get(10, TimeUnit.SECONDS);
+
+        UtenteChangesDTO second = changeService.changesSince(first.getNextCursor(), 10);
+        assertThat(second.getChanges()).extracting(UtenteChangeDTO::getId).containsExactly(1L);
+        assertThat(second.getNextCursor()).isGreaterThan(first.getNextCursor());
+    }
+
+    @Test
+    void changesOfATransactionAreWrittenInRecordOrderWithTheirOutboxRows() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            changeService.record(7L, UtenteChangeType.CREATED);
+            changeService.recordAll(List.of(8L, 9L), UtenteChangeType.DELETED);
+            // Nothing is written before commit
+            assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM utenti_changes", Long.class)).isZero();
+        });
+
+        List<Long> ids = jdbc.queryForList("SELECT id FROM utenti_changes ORDER BY id", Long.class);
+        assertThat(jdbc.queryForList("SELECT utente_id FROM utenti_changes ORDER BY id", Long.class))
+                .containsExactly(7L, 8L, 9L);
+        assertThat(jdbc.queryForList("SELECT change_type FROM utenti_changes ORDER BY id", String.class))
+                .containsExactly("CREATED", "DELETED", "DELETED");
+        assertThat(jdbc.queryForList("SELECT change_cursor FROM outbox_events ORDER BY aggregate_id", Long.class))
+                .containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void rolledBackChangesAreNotRecorded() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            changeService.record(1L, UtenteChangeType.UPDATED);
+            status.setRollbackOnly();
+        });
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM utenti_changes", Long.class)).isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM outbox_events", Long.class)).isZero();
+        assertThat(changeService.changesSince(0, 10).getChanges()).isEmpty();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.giggi.basesetup.storage;
+
+import com.giggi.basesetup.repository.UtenteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sweeps of a store on a temporary directory; references come from a mocked repository.
+ */
+class AvatarSweeperTest {
+
+    private static final long GRACE_MINUTES = 60;
+
+    @TempDir
+    Path root;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UtenteRepository utenteRepository = mock(UtenteRepository.class);
+
+    private ContentStore contentStore;
+    private ThumbnailService thumbnailService;
+    private AvatarSweeper sweeper;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        contentStore = new ContentStore(root.toString());
+        thumbnailService = new ThumbnailService(contentStore, meterRegistry, root.toString(), 1, 10);
+        sweeper = new AvatarSweeper(contentStore, thumbnailService, utenteRepository, mock(PlatformTransactionManager.class),
+                meterRegistry, GRACE_MINUTES, 3_600_000);
+        sweeper.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sweeper.stop();
+        thumbnailService.shutdown();
+    }
+
+    @Test
+    void unreferencedBlobIsDeletedWithItsThumbnails() throws IOException {
+        String replaced = store("old avatar", Duration.ofHours(2));
+        String current = store("current avatar", Duration.ofHours(2));
+        Path thumbnail = thumbnail(replaced, ThumbnailSize.SMALL);
+        when(utenteRepository.findReferencedAvatarHashes(anyCollection())).thenReturn(List.of(current));
+
+        assertThat(sweeper.sweep()).isEqualTo(1);
+
+        assertThat(contentStore.find(replaced)).isEmpty();
+        assertThat(thumbnail).doesNotExist();
+        assertThat(contentStore.find(current)).isPresent();
+        assertThat(meterRegistry.counter("storage.blobs.swept").count()).isEqualTo(1);
+    }
+
+    @Test
+    void recentBlobIsKeptUntilTheGracePeriodEnds() throws IOException {
+        String uploading = store("not committed yet", Duration.ofMinutes(5));
+        when(utenteRepository.findReferencedAvatarHashes(anyCollection())).thenReturn(List.of());
+
+        assertThat(sweeper.sweep()).isZero();
+
+        assertThat(contentStore.find(uploading)).isPresent();
+    }
+
+    @Test
+    void storingTheSameContentAgainRestartsTheGracePeriod() throws IOException {
+        String hash = store("shared picture", Duration.ofHours(2));
+        assertThat(store("shared picture", Duration.ZERO)).isEqualTo(hash);
+        when(utenteRepository.findReferencedAvatarHashes(anyCollection())).thenReturn(List.of());
+
+        assertThat(sweeper.sweep()).isZero();
+
+        assertThat(contentStore.find(hash)).isPresent();
+    }
+
+    /**
+     * Store the content and backdate it by {@code age}; a zero age leaves the store's own time.
+     */
+    private String store(String content, Duration age) throws IOException {
+        StoredContent stored = contentStore.store(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), 1024);
+        if (!age.isZero()) {
+            Files.setLastModifiedTime(contentStore.find(stored.hash()).orElseThrow(),
+                    FileTime.from(Instant.now().minus(age)));
+        }
+        return stored.hash();
+    }
+
+    private Path thumbnail(String hash, ThumbnailSize size) throws IOException {
+        Path path = root.resolve("thumbs").resolve(size.key()).resolve(hash.substring(0, 2)).resolve(hash + ".jpg");
+        Files.createDirectories(path.getParent());
+        Files.write(path, new byte[]{1});
+        assertThat(thumbnailService.find(hash, size)).contains(path);
+        return path;
+    }
+}
@@ -0,0 +1,252 @@
+package com.giggi.basesetup.stream;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.giggi.basesetup.dto.response.utente.UtenteChangeDTO;
+import com.giggi.basesetup.dto.response.utente.UtenteChangesDTO;
+import com.giggi.basesetup.entity.UtenteChangeType;
+import com.giggi.basesetup.service.UtenteChangeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Resume without duplicates or gaps, the reset control event and slow-consumer
+ * disconnection. Frames are captured from the emitter as "&lt;event&gt;:&lt;id&gt;".
+ * The feed is driven with {@link UtenteStreamService#pollOnce} and starts at cursor 5.
+ */
+class UtenteStreamServiceTest {
+
+    private static final int BUFFER_SIZE = 4;
+    private static final long HEAD = 5;
+    private static final Pattern ID = Pattern.compile("id:(\\d+)");
+    private static final Pattern NAME = Pattern.compile("event:(\\w+)");
+
+    private final UtenteChangeService changeService = mock(UtenteChangeService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private volatile CountDownLatch sendGate;
+
+    private UtenteStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UtenteStreamService(changeService, JsonMapper.builder().findAndAddModules().build(), meterRegistry,
+                BUFFER_SIZE, 10, 60_000, 60_000, 100, 500) {
+            @Override
+            SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        when(changeService.latestCursor()).thenReturn(HEAD);
+        service.pollOnce();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void noSubscriberBeforeTheFeedFoundTheHeadOfTheLog() {
+        UtenteStreamService starting = new UtenteStreamService(changeService, JsonMapper.builder().build(),
+                new SimpleMeterRegistry(), BUFFER_SIZE, 10, 60_000, 60_000, 100, 500);
+
+        assertThat(starting.subscribe(null)).isNull();
+        starting.pollOnce();
+        assertThat(starting.subscribe(null)).isNotNull();
+        starting.shutdown();
+    }
+
+    @Test
+    void liveSubscriberGetsTheChangesAfterTheHead() throws Exception {
+        service.subscribe(null);
+        RecordingEmitter emitter = emitters.getFirst();
+        assertThat(emitter.next(1)).containsExactly("ready");
+
+        when(changeService.changesSince(eq(HEAD), anyInt())).thenReturn(changes(7, false, 6, 7));
+        when(changeService.changesSince(eq(7L), anyInt())).thenReturn(changes(8, false, 8));
+        service.pollOnce();
+        service.pollOnce();
+
+        assertThat(emitter.next(3)).containsExactly("DELETED:6", "DELETED:7", "DELETED:8");
+        assertThat(emitter.frames.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void resumeSendsEveryChangeOnce() throws Exception {
+        when(changeService.changesSince(eq(HEAD), anyInt())).thenReturn(changes(7, false, 6, 7));
+        when(changeService.changesSince(eq(3L), anyInt())).thenAnswer(invocation -> {
+            // Read by the feed while the replay runs: 6 is also replayed, 7 is only live
+            service.pollOnce();
+            return changes(6, false, 4, 5, 6);
+        });
+
+        service.subscribe(3L);
+        RecordingEmitter emitter = emitters.getFirst();
+        assertThat(emitter.next(5)).containsExactly("DELETED:4", "DELETED:5", "DELETED:6", "ready", "DELETED:7");
+
+        when(changeService.changesSince(eq(7L), anyInt())).thenReturn(changes(8, false, 8));
+        service.pollOnce();
+        assertThat(emitter.next(1)).containsExactly("DELETED:8");
+        assertThat(emitter.frames.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void liveChangeBelowTheReplayedCursorIsSentUnlessReplayed() throws Exception {
+        // Only the replayed ids are duplicates: a live change is never dropped for
+        // arriving after one with a higher cursor
+        when(changeService.changesSince(eq(HEAD), anyInt())).thenReturn(changes(9, false, 7, 9));
+        when(changeService.changesSince(eq(6L), anyInt())).thenAnswer(invocation -> {
+            service.pollOnce();
+            return changes(9, false, 9);
+        });
+
+        service.subscribe(6L);
+
+        assertThat(emitters.getFirst().next(3)).containsExactly("DELETED:9", "ready", "DELETED:7");
+    }
+
+    @Test
+    void resumeAheadOfThisInstanceSkipsWhatTheClientHas() throws Exception {
+        // The client was on an instance further along the log
+        when(changeService.changesSince(eq(8L), anyInt())).thenReturn(changes(8, false));
+        service.subscribe(8L);
+        RecordingEmitter emitter = emitters.getFirst();
+        assertThat(emitter.next(1)).containsExactly("ready");
+
+        when(changeService.changesSince(eq(HEAD), anyInt())).thenReturn(changes(9, false, 6, 7, 8, 9));
+        service.pollOnce();
+
+        assertThat(emitter.next(1)).containsExactly("DELETED:9");
+        assertThat(emitter.frames.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void fullPagesArePolledWithoutDelay() {
+        when(changeService.changesSince(eq(HEAD), anyInt())).thenReturn(changes(6, true, 6));
+        when(changeService.changesSince(eq(6L), anyInt())).thenReturn(changes(6, false));
+
+        assertThat(service.pollOnce()).isZero();
+        assertThat(service.pollOnce()).isEqualTo(100);
+    }
+
+    @Test
+    void resumeTooFarBehindSendsReset() throws Exception {
+        when(changeService.changesSince(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long since = invocation.getArgument(0);
+            return new UtenteChangesDTO(List.of(change(since + 1)), since + 1, true);
+        });
+
+        service.subscribe(0L);
+        List<String> frames = emitters.getFirst().next(22);
+
+        assertThat(frames.subList(0, 20)).allMatch(frame -> frame.startsWith("DELETED:"));
+        assertThat(frames.subList(20, 22)).containsExactly("reset", "ready");
+        assertThat(emitters.getFirst().data).contains("data:20");
+    }
+
+    @Test
+    void slowConsumerIsDisconnected() throws Exception {
+        sendGate = new CountDownLatch(1);
+        service.subscribe(null);
+        RecordingEmitter emitter = emitters.getFirst();
+        assertThat(meterRegistry.get("stream.subscribers").gauge().value()).isEqualTo(1);
+
+        // The writer is stuck sending "ready", the buffer holds four events, the fifth overflows
+        service.publish(List.of(event(6), event(7), event(8), event(9), event(10)));
+
+        assertThat(meterRegistry.get("stream.subscribers.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("stream.subscribers").gauge().value()).isZero();
+        assertThat(emitter.completed).isTrue();
+
+        sendGate.countDown();
+        assertThat(emitter.next(1)).containsExactly("ready");
+        assertThat(emitter.frames.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private static StreamEvent event(long cursor) {
+        return new StreamEvent(cursor, UtenteChangeType.DELETED.name(), "{}");
+    }
+
+    private static UtenteChangeDTO change(long cursor) {
+        return new UtenteChangeDTO(cursor, cursor, UtenteChangeType.DELETED, LocalDateTime.now(), null);
+    }
+
+    private static UtenteChangesDTO changes(long nextCursor, boolean hasMore, long... cursors) {
+        return new UtenteChangesDTO(Arrays.stream(cursors).mapToObj(UtenteStreamServiceTest::change).toList(),
+                nextCursor, hasMore);
+    }
+
+    private class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        private final List<String> data = new ArrayList<>();
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            CountDownLatch gate = sendGate;
+            if (gate != null) {
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            String text = builder.build().stream()
+                    .map(part -> part.getData().toString())
+                    .collect(Collectors.joining());
+            if (text.startsWith(":")) {
+                return;
+            }
+            Matcher id = ID.matcher(text);
+            Matcher name = NAME.matcher(text);
+            name.find();
+            synchronized (data) {
+                data.addAll(Arrays.asList(text.split("\n")));
+            }
+            frames.add(id.find() ? name.group(1) + ":" + id.group(1) : name.group(1));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        List<String> next(int count) throws InterruptedException {
+            List<String> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String frame = frames.poll(5, TimeUnit.SECONDS);
+                assertThat(frame).as("frame %d of %d, got %s", i + 1, count, result).isNotNull();
+                result.add(frame);
+            }
+            return result;
+        }
+    }
+}
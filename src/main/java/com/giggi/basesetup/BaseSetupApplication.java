@@ -1,13 +0,0 @@
-package com.giggi.basesetup;
-
-import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
-
-@SpringBootApplication
-public class BaseSetupApplication {
-
-    public static void main(String[] args) {
-        SpringApplication.run(BaseSetupApplication.class, args);
-    }
-
-}
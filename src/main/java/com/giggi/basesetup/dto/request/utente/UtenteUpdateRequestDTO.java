@@ -1,11 +0,0 @@
-package com.giggi.basesetup.dto.request.utente;
-
-import lombok.Getter;
-import lombok.Setter;
-
-@Setter
-@Getter
-public class UtenteUpdateRequestDTO {
-    private Long id;
-    // altri campi da aggiornare
-}
\ No newline at end of file
@@ -1,49 +0,0 @@
-package com.giggi.basesetup.security.jwt;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.MediaType;
-import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.web.AuthenticationEntryPoint;
-import org.springframework.stereotype.Component;
-
-import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
-
-/**
- * JWT Authentication entry point that handles unauthorized access attempts.
- * Returns a JSON response with error details when authentication fails.
- */
-@Component
-@Slf4j
-public class AuthEntryPointJwt implements AuthenticationEntryPoint {
-
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
-    /**
-     * Handles unauthorized access by returning a structured JSON error response.
-     */
-    @Override
-    public void commence(HttpServletRequest request,
-                         HttpServletResponse response,
-                         AuthenticationException authException) throws IOException {
-
-        log.error("Unauthorized error: {} - Path: {}", authException.getMessage(), request.getServletPath());
-
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-
-        final Map<String, Object> body = new HashMap<>();
-        body.put("status", HttpServletResponse.SC_UNAUTHORIZED);
-        body.put("error", "Unauthorized");
-        body.put("message", authException.getMessage());
-        body.put("path", request.getServletPath());
-        body.put("timestamp", LocalDateTime.now().toString());
-
-        objectMapper.writeValue(response.getOutputStream(), body);
-    }
-}
\ No newline at end of file
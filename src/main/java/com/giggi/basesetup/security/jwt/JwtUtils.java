@@ -1,180 +0,0 @@
-package com.giggi.basesetup.security.jwt;
-
-import com.giggi.basesetup.security.service.UserDetailsImpl;
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import jakarta.servlet.http.HttpServletRequest;
-import lombok.Getter;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.stereotype.Component;
-
-import javax.crypto.SecretKey;
-import java.util.*;
-import java.util.stream.Collectors;
-
-/**
- * Utility class for JWT token operations including generation, validation and parsing.
- */
-@Component
-@Slf4j
-public class JwtUtils {
-
-    @Value("${spring.app.jwtSecret}")
-    private String jwtSecret;
-
-    @Getter
-    @Value("${spring.app.jwtExpirationMs}")
-    private int jwtExpirationMs;
-
-    /**
-     * Generate JWT token from Authentication object.
-     */
-    public String generateJwtToken(Authentication authentication) {
-        UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
-
-        return Jwts.builder()
-                .subject(userPrincipal.getUsername())
-                .claim("id", userPrincipal.getId())
-                .claim("email", userPrincipal.getEmail())
-                .claim("firstName", userPrincipal.getFirstName())
-                .claim("lastName", userPrincipal.getLastName())
-                .claim("authorities", userPrincipal.getAuthorities().stream()
-                        .map(GrantedAuthority::getAuthority)
-                        .collect(Collectors.toList()))
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey())
-                .compact();
-    }
-
-    /**
-     * Generate JWT token from UserDetailsImpl.
-     */
-    public String generateTokenFromUser(UserDetailsImpl userDetails) {
-        return Jwts.builder()
-                .subject(userDetails.getUsername())
-                .claim("id", userDetails.getId())
-                .claim("email", userDetails.getEmail())
-                .claim("firstName", userDetails.getFirstName())
-                .claim("lastName", userDetails.getLastName())
-                .claim("authorities", userDetails.getAuthorities().stream()
-                        .map(GrantedAuthority::getAuthority)
-                        .collect(Collectors.toList()))
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey())
-                .compact();
-    }
-
-    /**
-     * Extract JWT token from HTTP request header.
-     */
-    public String getJwtFromHeader(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        log.debug("Authorization Header: {}", bearerToken);
-
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
-    }
-
-    /**
-     * Get username from JWT token.
-     */
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
-
-    /**
-     * Get user ID from JWT token.
-     */
-    public Long getUserIdFromJwtToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.get("id", Long.class);
-    }
-
-    /**
-     * Get authorities from JWT token.
-     */
-    public Collection<GrantedAuthority> getAuthoritiesFromJwtToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        @SuppressWarnings("unchecked")
-        List<String> authorities = claims.get("authorities", List.class);
-
-        return authorities.stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Get all claims from JWT token.
-     */
-    public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    /**
-     * Validate JWT token.
-     */
-    public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
-        } catch (Exception e) {
-            log.error("JWT token validation error: {}", e.getMessage());
-        }
-        return false;
-    }
-
-    public boolean isTokenExpired(String token) {
-        try {
-            Claims claims = getAllClaimsFromToken(token);
-            return claims.getExpiration().before(new Date());
-        } catch (Exception e) {
-            log.error("Error checking token expiration: {}", e.getMessage());
-            return true;
-        }
-    }
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-}
\ No newline at end of file
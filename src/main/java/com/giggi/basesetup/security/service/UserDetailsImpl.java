@@ -1,126 +0,0 @@
-package com.giggi.basesetup.security.service;
-
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.giggi.basesetup.entity.Utente;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-
-import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
-
-/**
- * Custom UserDetails implementation that wraps the User entity
- * and provides Spring Security with user authentication information.
- */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class UserDetailsImpl implements UserDetails {
-
-    private static final long serialVersionUID = 1L;
-
-    private Long id;
-    private String username;
-    private String email;
-    private String firstName;
-    private String lastName;
-
-    @JsonIgnore
-    private String password;
-
-    private boolean enabled;
-    private boolean accountNonExpired;
-    private boolean accountNonLocked;
-    private boolean credentialsNonExpired;
-
-    private Collection<? extends GrantedAuthority> authorities;
-
-    /**
-     * Factory method to create UserDetailsImpl from User entity.
-     */
-    public static UserDetailsImpl build(Utente user) {
-        List<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName()))
-                .collect(Collectors.toList());
-
-        return new UserDetailsImpl(
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getPassword(),
-                user.getEnabled(),
-                user.getAccountNonExpired(),
-                user.getAccountNonLocked(),
-                user.getCredentialsNonExpired(),
-                authorities);
-    }
-
-    @Override
-    public Collection<? extends GrantedAuthority> getAuthorities() {
-        return authorities;
-    }
-
-    @Override
-    public String getPassword() {
-        return password;
-    }
-
-    @Override
-    public String getUsername() {
-        return username;
-    }
-
-    @Override
-    public boolean isAccountNonExpired() {
-        return accountNonExpired;
-    }
-
-    @Override
-    public boolean isAccountNonLocked() {
-        return accountNonLocked;
-    }
-
-    @Override
-    public boolean isCredentialsNonExpired() {
-        return credentialsNonExpired;
-    }
-
-    @Override
-    public boolean isEnabled() {
-        return enabled;
-    }
-
-    /**
-     * Get full name of the user.
-     */
-    public String getFullName() {
-        return firstName + " " + lastName;
-    }
-
-    /**
-     * Check if user has a specific role.
-     */
-    public boolean hasRole(String roleName) {
-        return authorities.stream()
-                .anyMatch(authority -> authority.getAuthority().equals(roleName));
-    }
-
-    /**
-     * Check if user has any of the specified roles.
-     */
-    public boolean hasAnyRole(String... roleNames) {
-        for (String roleName : roleNames) {
-            if (hasRole(roleName)) {
-                return true;
-            }
-        }
-        return false;
-    }
-}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.giggi.tokenverifier;
+
+/**
+ * The token is missing, malformed, expired, or not signed by a trusted key.
+ */
+public class TokenVerificationException extends RuntimeException {
+
+    public TokenVerificationException(String message) {
+        super(message);
+    }
+
+    public TokenVerificationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,189 @@
+package com.giggi.tokenverifier;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verifies BaseSetup access tokens in-process, replacing a call to
+ * {@code POST /api/auth/validate}. Both token formats are accepted: the full one
+ * ({@code id}, {@code authorities}, profile claims) and the compact one
+ * ({@code uid}, {@code r} role mask).
+ * <p>
+ * Thread-safe; create one instance per application. Verified tokens are cached until
+ * they expire, so repeated requests with the same token skip the HMAC and JSON work.
+ */
+public final class TokenVerifier {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final VerifierConfig config;
+    private final Map<String, JwtParser> parsers;
+    private final VerifiedTokenCache cache;
+    // Compact tokens repeat the same few role masks, so each role set is built once
+    private final Map<Integer, Set<String>> rolesByMask = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public TokenVerifier(VerifierConfig config) {
+        this.config = config;
+        this.parsers = new LinkedHashMap<>();
+        for (Map.Entry<String, SecretKey> key : config.getTrustedKeys().entrySet()) {
+            parsers.put(key.getKey(), Jwts.parser()
+                    .verifyWith(key.getValue())
+                    .clockSkewSeconds(config.getClockSkew().toSeconds())
+                    .clock(() -> Date.from(config.getClock().instant()))
+                    .build());
+        }
+        this.cache = config.getCacheSize() > 0 ? new VerifiedTokenCache(config.getCacheSize()) : null;
+    }
+
+    /**
+     * Verify a raw token or an {@code Authorization} header value.
+     *
+     * @throws TokenVerificationException when the token is not valid
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) {
+            failures.increment();
+            throw new TokenVerificationException("Missing token");
+        }
+        String jwt = token.startsWith(BEARER_PREFIX) ? token.substring(BEARER_PREFIX.length()).trim() : token.trim();
+
+        Instant now = config.getClock().instant();
+        if (cache != null) {
+            VerifiedToken cached = cache.get(jwt, now);
+            if (cached != null) {
+                cacheHits.increment();
+                return cached;
+            }
+            cacheMisses.increment();
+        }
+
+        VerifiedToken verified = parse(jwt);
+        if (cache != null) {
+            cache.put(jwt, verified, now);
+        }
+        return verified;
+    }
+
+    /**
+     * Like {@link #verify(String)}, empty instead of throwing.
+     */
+    public Optional<VerifiedToken> tryVerify(String token) {
+        try {
+            return Optional.of(verify(token));
+        } catch (TokenVerificationException e) {
+            return Optional.empty();
+        }
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public int getCacheSize() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    /**
+     * Drop every cached result, e.g. after removing a trusted key from a running service.
+     */
+    public void clearCache() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private VerifiedToken parse(String jwt) {
+        // Tokens carry no key id, so the trusted keys are tried in order
+        for (Map.Entry<String, JwtParser> parser : parsers.entrySet()) {
+            try {
+                Claims claims = parser.getValue().parseSignedClaims(jwt).getPayload();
+                return toVerifiedToken(claims, parser.getKey());
+            } catch (SignatureException e) {
+                // Not signed with this key, try the next one
+            } catch (ExpiredJwtException e) {
+                failures.increment();
+                throw new TokenVerificationException("Token expired", e);
+            } catch (JwtException | IllegalArgumentException e) {
+                failures.increment();
+                throw new TokenVerificationException("Invalid token: " + e.getMessage(), e);
+            }
+        }
+        failures.increment();
+        throw new TokenVerificationException("Token not signed by a trusted key");
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims, String keyId) {
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            failures.increment();
+            throw new TokenVerificationException("Token without subject or expiration");
+        }
+
+        Integer mask = claims.get("r", Integer.class);
+        Long userId = claims.get(mask != null ? "uid" : "id", Long.class);
+        Set<String> roles = mask != null ? rolesForMask(mask) : rolesFromAuthorities(claims);
+
+        return new VerifiedToken(
+                claims.getSubject(),
+                userId,
+                roles,
+                claims.getExpiration().toInstant(),
+                claims.get("email", String.class),
+                claims.get("firstName", String.class),
+                claims.get("lastName", String.class),
+                keyId);
+    }
+
+    private Set<String> rolesForMask(int mask) {
+        return rolesByMask.computeIfAbsent(mask, bits -> {
+            List<String> roleNames = config.getRoleNames();
+            List<String> roles = new ArrayList<>(Integer.bitCount(bits));
+            for (int bit = 0; bit < roleNames.size(); bit++) {
+                if ((bits & (1 << bit)) != 0) {
+                    roles.add(roleNames.get(bit));
+                }
+            }
+            return Set.copyOf(roles);
+        });
+    }
+
+    private static Set<String> rolesFromAuthorities(Claims claims) {
+        List<?> authorities = claims.get("authorities", List.class);
+        if (authorities == null) {
+            return Set.of();
+        }
+        Set<String> roles = new LinkedHashSet<>(authorities.size());
+        for (Object authority : authorities) {
+            roles.add(String.valueOf(authority));
+        }
+        return Set.copyOf(roles);
+    }
+}
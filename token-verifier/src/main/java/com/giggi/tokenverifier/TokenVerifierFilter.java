@@ -0,0 +1,133 @@
+package com.giggi.tokenverifier;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Properties;
+
+/**
+ * Servlet filter verifying the {@code Authorization: Bearer} token with a
+ * {@link TokenVerifier}. On success the {@link VerifiedToken} is exposed as the
+ * request's user principal (so {@code isUserInRole("ROLE_ADMIN")} works) and as the
+ * {@link #VERIFIED_TOKEN_ATTRIBUTE} request attribute; an invalid token gets a 401.
+ * <p>
+ * Either construct it with a verifier, or declare it in {@code web.xml} with the
+ * {@code token.verifier.*} keys of {@link VerifierConfig#fromProperties} as init
+ * parameters, plus {@code required=true|false}.
+ */
+public class TokenVerifierFilter implements Filter {
+
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = VerifiedToken.class.getName();
+
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"status\":401,\"error\":\"Unauthorized\",\"message\":\"Invalid or missing token\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private TokenVerifier verifier;
+    private boolean required;
+
+    /**
+     * For containers that instantiate the filter; configured in {@link #init(FilterConfig)}.
+     */
+    public TokenVerifierFilter() {
+    }
+
+    /**
+     * @param required when false, requests without a token pass through unauthenticated
+     */
+    public TokenVerifierFilter(TokenVerifier verifier, boolean required) {
+        this.verifier = verifier;
+        this.required = required;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        if (verifier != null) {
+            return;
+        }
+        Properties properties = new Properties();
+        filterConfig.getInitParameterNames().asIterator()
+                .forEachRemaining(name -> properties.setProperty(name, filterConfig.getInitParameter(name)));
+        this.verifier = new TokenVerifier(VerifierConfig.fromProperties(properties));
+        this.required = Boolean.parseBoolean(properties.getProperty("required", "true"));
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        String authorization = httpRequest.getHeader("Authorization");
+
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            if (required) {
+                unauthorized((HttpServletResponse) response, null);
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        VerifiedToken token;
+        try {
+            token = verifier.verify(authorization);
+        } catch (TokenVerificationException e) {
+            unauthorized((HttpServletResponse) response, "invalid_token");
+            return;
+        }
+
+        httpRequest.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, token);
+        chain.doFilter(new AuthenticatedRequest(httpRequest, token), response);
+    }
+
+    public TokenVerifier getVerifier() {
+        return verifier;
+    }
+
+    private static void unauthorized(HttpServletResponse response, String error) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader("WWW-Authenticate", error != null ? "Bearer error=\"" + error + "\"" : "Bearer");
+        response.setContentType("application/json");
+        response.setContentLength(UNAUTHORIZED_BODY.length);
+        response.getOutputStream().write(UNAUTHORIZED_BODY);
+    }
+
+    private static final class AuthenticatedRequest extends HttpServletRequestWrapper {
+
+        private final VerifiedToken token;
+
+        AuthenticatedRequest(HttpServletRequest request, VerifiedToken token) {
+            super(request);
+            this.token = token;
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return token;
+        }
+
+        @Override
+        public String getRemoteUser() {
+            return token.getSubject();
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return token.hasRole(role) || token.hasRole("ROLE_" + role);
+        }
+
+        @Override
+        public String getAuthType() {
+            return "BEARER";
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.giggi.tokenverifier;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Claims of a token whose signature and expiry have been checked. Immutable, so
+ * cached instances are shared between requests.
+ * <p>
+ * Compact tokens carry only subject, user id, roles and expiry; email and names are
+ * null for them and should be read from {@code GET /api/auth/me}.
+ */
+public final class VerifiedToken implements Principal {
+
+    private final String subject;
+    private final Long userId;
+    private final Set<String> roles;
+    private final Instant expiresAt;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final String keyId;
+
+    VerifiedToken(String subject, Long userId, Set<String> roles, Instant expiresAt,
+                  String email, String firstName, String lastName, String keyId) {
+        this.subject = subject;
+        this.userId = userId;
+        this.roles = roles;
+        this.expiresAt = expiresAt;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.keyId = keyId;
+    }
+
+    /**
+     * The username.
+     */
+    @Override
+    public String getName() {
+        return subject;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    /**
+     * Id of the trusted key that verified the signature, useful while rotating keys.
+     */
+    public String getKeyId() {
+        return keyId;
+    }
+
+    @Override
+    public String toString() {
+        return "VerifiedToken(subject=" + subject + ", userId=" + userId + ", roles=" + roles
+                + ", expiresAt=" + expiresAt + ")";
+    }
+}
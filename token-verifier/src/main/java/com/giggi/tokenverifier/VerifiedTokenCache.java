@@ -0,0 +1,68 @@
+package com.giggi.tokenverifier;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded map from raw token to its verification result. An entry lives until the
+ * token expires. Hits are a plain map lookup: when the cache is full, expired entries
+ * are dropped first, then an arbitrary slice, instead of tracking recency on every hit.
+ */
+final class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final ConcurrentHashMap<String, VerifiedToken> entries;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+    }
+
+    VerifiedToken get(String token, Instant now) {
+        VerifiedToken verified = entries.get(token);
+        if (verified == null) {
+            return null;
+        }
+        if (verified.isExpired(now)) {
+            entries.remove(token, verified);
+            return null;
+        }
+        return verified;
+    }
+
+    void put(String token, VerifiedToken verified, Instant now) {
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(token, verified);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    private void evict(Instant now) {
+        // One thread evicts; the others insert meanwhile and may overshoot briefly
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(verified -> verified.isExpired(now));
+            int toDrop = entries.size() - maxSize + Math.max(1, maxSize / 8);
+            Iterator<String> keys = entries.keySet().iterator();
+            while (toDrop-- > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
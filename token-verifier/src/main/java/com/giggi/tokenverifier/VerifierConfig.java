@@ -0,0 +1,172 @@
+package com.giggi.tokenverifier;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Settings of a {@link TokenVerifier}: the trusted signing keys and the cache.
+ * <p>
+ * Several keys can be trusted at once to rotate the secret without downtime: add
+ * the new key, switch the issuer, and remove the old key after the token lifetime.
+ */
+public final class VerifierConfig {
+
+    /**
+     * Role names by bit of the compact {@code r} claim, in {@code RoleName} order.
+     */
+    public static final List<String> DEFAULT_ROLE_NAMES = List.of("ROLE_USER", "ROLE_ADMIN", "ROLE_MODERATOR");
+
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+    public static final Duration DEFAULT_CLOCK_SKEW = Duration.ofSeconds(30);
+
+    private final Map<String, SecretKey> trustedKeys;
+    private final List<String> roleNames;
+    private final int cacheSize;
+    private final Duration clockSkew;
+    private final Clock clock;
+
+    private VerifierConfig(Builder builder) {
+        this.trustedKeys = Collections.unmodifiableMap(new LinkedHashMap<>(builder.trustedKeys));
+        this.roleNames = List.copyOf(builder.roleNames);
+        this.cacheSize = builder.cacheSize;
+        this.clockSkew = builder.clockSkew;
+        this.clock = builder.clock;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Read the configuration from plain properties, for consumers without a DI container:
+     * <pre>
+     * token.verifier.keys=&lt;base64 secret&gt;[,&lt;base64 secret&gt;...]
+     * token.verifier.cacheSize=10000
+     * token.verifier.clockSkewSeconds=30
+     * token.verifier.roles=ROLE_USER,ROLE_ADMIN,ROLE_MODERATOR
+     * </pre>
+     */
+    public static VerifierConfig fromProperties(Properties properties) {
+        Builder builder = builder();
+        String keys = properties.getProperty("token.verifier.keys");
+        if (keys != null) {
+            for (String key : keys.split(",")) {
+                if (!key.isBlank()) {
+                    builder.trustedKey(key.trim());
+                }
+            }
+        }
+        String cacheSize = properties.getProperty("token.verifier.cacheSize");
+        if (cacheSize != null) {
+            builder.cacheSize(Integer.parseInt(cacheSize.trim()));
+        }
+        String clockSkew = properties.getProperty("token.verifier.clockSkewSeconds");
+        if (clockSkew != null) {
+            builder.clockSkew(Duration.ofSeconds(Long.parseLong(clockSkew.trim())));
+        }
+        String roles = properties.getProperty("token.verifier.roles");
+        if (roles != null) {
+            builder.roleNames(roles.trim().split("\\s*,\\s*"));
+        }
+        return builder.build();
+    }
+
+    public Map<String, SecretKey> getTrustedKeys() {
+        return trustedKeys;
+    }
+
+    public List<String> getRoleNames() {
+        return roleNames;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public Duration getClockSkew() {
+        return clockSkew;
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    public static final class Builder {
+
+        private final Map<String, SecretKey> trustedKeys = new LinkedHashMap<>();
+        private List<String> roleNames = DEFAULT_ROLE_NAMES;
+        private int cacheSize = DEFAULT_CACHE_SIZE;
+        private Duration clockSkew = DEFAULT_CLOCK_SKEW;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder() {
+        }
+
+        /**
+         * Trust a key given as the Base64 secret of {@code spring.app.jwtSecret}.
+         */
+        public Builder trustedKey(String base64Secret) {
+            return trustedKey("key-" + trustedKeys.size(), base64Secret);
+        }
+
+        public Builder trustedKey(String keyId, String base64Secret) {
+            return trustedKey(keyId, Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
+        }
+
+        public Builder trustedKey(String keyId, SecretKey key) {
+            if (trustedKeys.putIfAbsent(keyId, key) != null) {
+                throw new IllegalArgumentException("Duplicate key id: " + keyId);
+            }
+            return this;
+        }
+
+        /**
+         * Role names by bit of the compact {@code r} claim; must match the issuer's {@code RoleName}.
+         */
+        public Builder roleNames(String... roleNames) {
+            if (roleNames.length > Integer.SIZE - 1) {
+                throw new IllegalArgumentException("At most " + (Integer.SIZE - 1) + " roles fit in the role mask");
+            }
+            this.roleNames = new ArrayList<>(List.of(roleNames));
+            return this;
+        }
+
+        /**
+         * Maximum number of verified tokens kept; 0 disables the cache.
+         */
+        public Builder cacheSize(int cacheSize) {
+            if (cacheSize < 0) {
+                throw new IllegalArgumentException("cacheSize must not be negative");
+            }
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public Builder clockSkew(Duration clockSkew) {
+            this.clockSkew = clockSkew;
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public VerifierConfig build() {
+            if (trustedKeys.isEmpty()) {
+                throw new IllegalStateException("At least one trusted key is required");
+            }
+            return new VerifierConfig(this);
+        }
+    }
+}
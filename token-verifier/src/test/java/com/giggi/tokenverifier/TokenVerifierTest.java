@@ -0,0 +1,226 @@
+package com.giggi.tokenverifier;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenVerifierTest {
+
+    private static final SecretKey KEY =
+            Keys.hmacShaKeyFor("test-secret-that-is-at-least-256-bits-long!".getBytes(StandardCharsets.UTF_8));
+    private static final SecretKey OTHER_KEY =
+            Keys.hmacShaKeyFor("another-secret-that-is-at-least-256-bits-long".getBytes(StandardCharsets.UTF_8));
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T10:00:00Z"));
+
+    @Test
+    void legacyTokenCarriesProfileAndAuthorities() {
+        VerifiedToken token = verifier(10).verify(legacyToken(KEY, clock.instant().plusSeconds(60)));
+
+        assertEquals("johndoe", token.getSubject());
+        assertEquals(42L, token.getUserId());
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), token.getRoles());
+        assertEquals("john.doe@example.com", token.getEmail());
+        assertEquals("John", token.getFirstName());
+        assertEquals("key-0", token.getKeyId());
+    }
+
+    @Test
+    void compactTokenRolesComeFromTheMask() {
+        // Bits 0 and 2: ROLE_USER and ROLE_MODERATOR in the default order
+        VerifiedToken token = verifier(10).verify(compactToken(KEY, 0b101, clock.instant().plusSeconds(60)));
+
+        assertEquals("johndoe", token.getSubject());
+        assertEquals(42L, token.getUserId());
+        assertEquals(Set.of("ROLE_USER", "ROLE_MODERATOR"), token.getRoles());
+        assertNull(token.getEmail());
+    }
+
+    @Test
+    void bearerPrefixIsAccepted() {
+        String jwt = compactToken(KEY, 1, clock.instant().plusSeconds(60));
+
+        assertEquals("johndoe", verifier(0).verify("Bearer " + jwt).getSubject());
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        TokenVerifier verifier = verifier(0);
+        String jwt = compactToken(KEY, 1, clock.instant().plusSeconds(60));
+        assertTrue(verifier.tryVerify(jwt).isPresent());
+
+        clock.advance(Duration.ofSeconds(61));
+
+        TokenVerificationException e = assertThrows(TokenVerificationException.class, () -> verifier.verify(jwt));
+        assertEquals("Token expired", e.getMessage());
+        assertEquals(1, verifier.getFailures());
+    }
+
+    @Test
+    void clockSkewExtendsExpiry() {
+        TokenVerifier verifier = new TokenVerifier(VerifierConfig.builder()
+                .trustedKey("k", KEY)
+                .cacheSize(0)
+                .clockSkew(Duration.ofSeconds(30))
+                .clock(clock)
+                .build());
+        String jwt = compactToken(KEY, 1, clock.instant().plusSeconds(60));
+
+        clock.advance(Duration.ofSeconds(80));
+        assertTrue(verifier.tryVerify(jwt).isPresent());
+
+        clock.advance(Duration.ofSeconds(20));
+        assertTrue(verifier.tryVerify(jwt).isEmpty());
+    }
+
+    @Test
+    void tokenSignedWithUntrustedKeyIsRejected() {
+        TokenVerifier verifier = verifier(10);
+
+        TokenVerificationException e = assertThrows(TokenVerificationException.class,
+                () -> verifier.verify(compactToken(OTHER_KEY, 1, clock.instant().plusSeconds(60))));
+        assertEquals("Token not signed by a trusted key", e.getMessage());
+        assertEquals(0, verifier.getCacheSize());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String jwt = compactToken(KEY, 1, clock.instant().plusSeconds(60));
+        String forged = compactToken(KEY, 0b11, clock.instant().plusSeconds(60));
+        // Payload of the admin token with the signature of the user token
+        String tampered = forged.substring(0, forged.lastIndexOf('.')) + jwt.substring(jwt.lastIndexOf('.'));
+
+        assertTrue(verifier(0).tryVerify(tampered).isEmpty());
+    }
+
+    @Test
+    void anyTrustedKeyVerifiesDuringRotation() {
+        TokenVerifier verifier = new TokenVerifier(VerifierConfig.builder()
+                .trustedKey("old", KEY)
+                .trustedKey("new", Encoders.BASE64.encode(OTHER_KEY.getEncoded()))
+                .clock(clock)
+                .build());
+
+        assertEquals("old", verifier.verify(compactToken(KEY, 1, clock.instant().plusSeconds(60))).getKeyId());
+        assertEquals("new", verifier.verify(compactToken(OTHER_KEY, 1, clock.instant().plusSeconds(60))).getKeyId());
+    }
+
+    @Test
+    void tokenWithoutExpirationIsRejected() {
+        String jwt = Jwts.builder().subject("johndoe").claim("uid", 42L).claim("r", 1).signWith(KEY).compact();
+
+        assertTrue(verifier(10).tryVerify(jwt).isEmpty());
+    }
+
+    @Test
+    void missingTokenIsRejected() {
+        TokenVerifier verifier = verifier(10);
+
+        assertThrows(TokenVerificationException.class, () -> verifier.verify(null));
+        assertThrows(TokenVerificationException.class, () -> verifier.verify(" "));
+    }
+
+    @Test
+    void verifiedTokenIsServedFromCacheUntilItExpires() {
+        TokenVerifier verifier = verifier(10);
+        String jwt = compactToken(KEY, 1, clock.instant().plusSeconds(60));
+
+        VerifiedToken first = verifier.verify(jwt);
+        assertSame(first, verifier.verify(jwt));
+        assertEquals(1, verifier.getCacheHits());
+        assertEquals(1, verifier.getCacheMisses());
+
+        clock.advance(Duration.ofSeconds(61));
+
+        assertThrows(TokenVerificationException.class, () -> verifier.verify(jwt));
+        assertEquals(1, verifier.getCacheHits());
+        assertEquals(0, verifier.getCacheSize());
+    }
+
+    @Test
+    void clearCacheForcesVerification() {
+        TokenVerifier verifier = verifier(10);
+        String jwt = compactToken(KEY, 1, clock.instant().plusSeconds(60));
+        verifier.verify(jwt);
+
+        verifier.clearCache();
+        verifier.verify(jwt);
+
+        assertEquals(0, verifier.getCacheHits());
+        assertEquals(2, verifier.getCacheMisses());
+    }
+
+    private TokenVerifier verifier(int cacheSize) {
+        return new TokenVerifier(VerifierConfig.builder()
+                .trustedKey(Encoders.BASE64.encode(KEY.getEncoded()))
+                .cacheSize(cacheSize)
+                .clockSkew(Duration.ZERO)
+                .clock(clock)
+                .build());
+    }
+
+    private static String legacyToken(SecretKey key, Instant expiresAt) {
+        return Jwts.builder()
+                .subject("johndoe")
+                .claim("id", 42L)
+                .claim("email", "john.doe@example.com")
+                .claim("firstName", "John")
+                .claim("lastName", "Doe")
+                .claim("authorities", List.of("ROLE_USER", "ROLE_ADMIN"))
+                .expiration(Date.from(expiresAt))
+                .signWith(key)
+                .compact();
+    }
+
+    private static String compactToken(SecretKey key, int roleMask, Instant expiresAt) {
+        return Jwts.builder()
+                .subject("johndoe")
+                .claim("uid", 42L)
+                .claim("r", roleMask)
+                .expiration(Date.from(expiresAt))
+                .signWith(key)
+                .compact();
+    }
+
+    static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
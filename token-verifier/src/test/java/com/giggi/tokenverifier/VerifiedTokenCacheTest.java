@@ -0,0 +1,82 @@
+package com.giggi.tokenverifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Test
+    void entryIsServedUntilItExpires() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        VerifiedToken token = token(NOW.plusSeconds(60));
+        cache.put("a", token, NOW);
+
+        assertSame(token, cache.get("a", NOW.plusSeconds(59)));
+        assertNull(cache.get("a", NOW.plusSeconds(60)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void fullCacheDropsExpiredEntriesFirst() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        for (int i = 0; i < 8; i++) {
+            cache.put("expiring-" + i, token(NOW.plusSeconds(10)), NOW);
+        }
+        for (int i = 0; i < 8; i++) {
+            cache.put("live-" + i, token(NOW.plusSeconds(3600)), NOW);
+        }
+
+        Instant later = NOW.plusSeconds(20);
+        cache.put("new", token(NOW.plusSeconds(3600)), later);
+
+        // The expired half made room, so no live entry was dropped
+        assertEquals(9, cache.size());
+        for (int i = 0; i < 8; i++) {
+            assertNotNull(cache.get("live-" + i, later));
+        }
+        assertNotNull(cache.get("new", later));
+    }
+
+    @Test
+    void fullCacheOfLiveEntriesDropsAnEighth() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        for (int i = 0; i < 16; i++) {
+            cache.put("live-" + i, token(NOW.plusSeconds(3600)), NOW);
+        }
+
+        cache.put("new", token(NOW.plusSeconds(3600)), NOW);
+
+        assertEquals(16 - 2 + 1, cache.size());
+        assertNotNull(cache.get("new", NOW));
+    }
+
+    @Test
+    void sizeStaysBoundedUnderSequentialInserts() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("token-" + i, token(NOW.plusSeconds(3600)), NOW);
+            assertTrue(cache.size() <= 100);
+        }
+    }
+
+    @Test
+    void clearDropsEverything() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("a", token(NOW.plusSeconds(60)), NOW);
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a", NOW));
+    }
+
+    private static VerifiedToken token(Instant expiresAt) {
+        return new VerifiedToken("johndoe", 42L, Set.of("ROLE_USER"), expiresAt, null, null, null, "key-0");
+    }
+}
@@ -0,0 +1,93 @@
+package com.giggi.tokenverifier.benchmark;
+
+import com.giggi.tokenverifier.TokenVerifier;
+import com.giggi.tokenverifier.VerifiedToken;
+import com.giggi.tokenverifier.VerifierConfig;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying a token in-process, with and without the verified-token cache,
+ * for both token formats, and with a rotated-out key tried first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TokenVerifierBenchmark {
+
+    private static final String SECRET = "mySecretKeyThatIsAtLeast256BitsLongForHS256AlgorithmSecurityPurposes";
+    private static final String OLD_SECRET = "anOlderSecretKeyKeptTrustedWhileTheSigningKeyIsRotatedAtLeast256Bits";
+
+    private TokenVerifier cached;
+    private TokenVerifier uncached;
+    private TokenVerifier rotating;
+    private String fullToken;
+    private String compactToken;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cached = new TokenVerifier(VerifierConfig.builder().trustedKey(SECRET).build());
+        uncached = new TokenVerifier(VerifierConfig.builder().trustedKey(SECRET).cacheSize(0).build());
+        rotating = new TokenVerifier(VerifierConfig.builder()
+                .trustedKey("old", OLD_SECRET)
+                .trustedKey("current", SECRET)
+                .cacheSize(0)
+                .build());
+
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        Date expiration = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        fullToken = Jwts.builder()
+                .subject("johndoe")
+                .claim("id", 42L)
+                .claim("email", "john.doe@example.com")
+                .claim("firstName", "John")
+                .claim("lastName", "Doe")
+                .claim("authorities", List.of("ROLE_USER", "ROLE_ADMIN"))
+                .issuedAt(new Date())
+                .expiration(expiration)
+                .signWith(key)
+                .compact();
+        compactToken = Jwts.builder()
+                .subject("johndoe")
+                .claim("uid", 42L)
+                .claim("r", 3)
+                .expiration(expiration)
+                .signWith(key)
+                .compact();
+    }
+
+    @Benchmark
+    public VerifiedToken fullUncached() {
+        return uncached.verify(fullToken);
+    }
+
+    @Benchmark
+    public VerifiedToken compactUncached() {
+        return uncached.verify(compactToken);
+    }
+
+    @Benchmark
+    public VerifiedToken fullCached() {
+        return cached.verify(fullToken);
+    }
+
+    @Benchmark
+    public VerifiedToken compactCached() {
+        return cached.verify(compactToken);
+    }
+
+    @Benchmark
+    public VerifiedToken compactSecondKey() {
+        return rotating.verify(compactToken);
+    }
+}